@@ -0,0 +1,114 @@
+#!/bin/bash
+# =============================================================================
+# EduTech - Benchmark de hilos de plataforma vs hilos virtuales - Support Service
+# =============================================================================
+# Descripción: Arranca el servicio dos veces contra la misma base de datos, primero
+#              con la configuración por defecto (pool de Tomcat de hilos de plataforma)
+#              y después con el perfil virtual-threads, y lanza la misma carga con
+#              'hey' sobre endpoints dominados por esperas JDBC para comparar
+#              peticiones por segundo y latencias.
+# Requisitos: JDK 21+, Maven, hey (https://github.com/rakyll/hey) y las variables
+#             DATABASE_URL / DATABASE_USERNAME / DATABASE_PASSWORD configuradas.
+# Uso:        ./scripts/mac/benchmark-hilos.sh [concurrencia] [peticiones]
+# Plataforma: macOS/Linux/Unix
+# =============================================================================
+
+set -euo pipefail
+
+readonly SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+readonly ROOT_DIR="$(dirname "$(dirname "$SCRIPT_DIR")")"
+
+if [ -f "$ROOT_DIR/scripts/banner.sh" ]; then
+    source "$ROOT_DIR/scripts/banner.sh"
+fi
+
+# Configuración
+readonly SERVICE_PORT="8084"
+readonly BASE_URL="http://localhost:${SERVICE_PORT}"
+readonly CONCURRENCY="${1:-400}"
+readonly REQUESTS="${2:-20000}"
+readonly WARMUP_REQUESTS=2000
+readonly MAX_WAIT_TIME=120
+readonly RESULTS_DIR="${ROOT_DIR}/logs/benchmark-hilos"
+readonly ENDPOINTS=(
+    "/api/tickets/paginated?page=0&size=20"
+    "/api/tickets/status/NUEVO"
+    "/api/faqs"
+)
+
+mkdir -p "$RESULTS_DIR"
+
+check_requirements() {
+    local java_major
+    java_major=$(java -version 2>&1 | awk -F '"' '/version/ {split($2, v, "."); print v[1]}')
+    if [ "${java_major:-0}" -lt 21 ]; then
+        show_error_banner "Se necesita JDK 21 o superior para los hilos virtuales (detectado: ${java_major:-desconocido})"
+        exit 1
+    fi
+    if ! command -v hey >/dev/null 2>&1; then
+        show_error_banner "No se encontró 'hey'. Instálalo con: brew install hey / go install github.com/rakyll/hey@latest"
+        exit 1
+    fi
+    if lsof -Pi :"$SERVICE_PORT" -sTCP:LISTEN -t >/dev/null 2>&1; then
+        show_error_banner "El puerto $SERVICE_PORT está en uso; detén el servicio antes de medir"
+        exit 1
+    fi
+}
+
+build_jar() {
+    show_operation_banner "🔨 COMPILANDO" "Empaquetando el servicio con -Pjava21..."
+    (cd "$ROOT_DIR" && mvn -B -q -Pjava21 -DskipTests package)
+    JAR_FILE=$(ls "$ROOT_DIR"/target/support-service-*.jar | grep -v original | head -n 1)
+}
+
+wait_for_health() {
+    local waited=0
+    until curl -sf "${BASE_URL}/actuator/health" >/dev/null 2>&1; do
+        sleep 2
+        waited=$((waited + 2))
+        if [ "$waited" -ge "$MAX_WAIT_TIME" ]; then
+            show_error_banner "El servicio no respondió en ${MAX_WAIT_TIME}s"
+            return 1
+        fi
+    done
+}
+
+run_mode() {
+    local mode="$1"
+    local profiles="$2"
+    local summary="${RESULTS_DIR}/${mode}.txt"
+
+    show_operation_banner "🚀 MODO ${mode}" "Arrancando el servicio (perfiles: ${profiles:-ninguno})..."
+    java -jar "$JAR_FILE" --spring.profiles.active="$profiles" \
+        --logging.level.org.hibernate.SQL=WARN --logging.level.org.springframework.web=WARN \
+        > "${RESULTS_DIR}/${mode}-service.log" 2>&1 &
+    local pid=$!
+    trap 'kill '"$pid"' 2>/dev/null || true' EXIT
+
+    wait_for_health
+    : > "$summary"
+
+    for endpoint in "${ENDPOINTS[@]}"; do
+        hey -n "$WARMUP_REQUESTS" -c 50 "${BASE_URL}${endpoint}" >/dev/null
+        echo "### ${endpoint}" >> "$summary"
+        hey -n "$REQUESTS" -c "$CONCURRENCY" "${BASE_URL}${endpoint}" \
+            | grep -E "Requests/sec|Average|Slowest|99% in|\[[0-9]{3}\]" >> "$summary"
+    done
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+    show_success_banner "Resultados de ${mode} en ${summary}"
+}
+
+print_comparison() {
+    show_operation_banner "📊 COMPARATIVA" "Concurrencia ${CONCURRENCY}, ${REQUESTS} peticiones por endpoint"
+    paste -d '|' "${RESULTS_DIR}/plataforma.txt" "${RESULTS_DIR}/virtuales.txt" \
+        | awk -F '|' '{ printf "%-45s | %s\n", $1, $2 }'
+}
+
+check_requirements
+build_jar
+run_mode "plataforma" ""
+run_mode "virtuales" "virtual-threads"
+print_comparison
@@ -0,0 +1,71 @@
+package com.edutech.supportservice;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arranque de la aplicación para los benchmarks que miden acceso a datos: sin servidor web,
+ * contra H2 en memoria en modo PostgreSQL y sin el registro de SQL ni de peticiones.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param database       nombre de la base de datos en memoria
+     * @param extraArguments propiedades adicionales en formato {@code --clave=valor}
+     */
+    public static ConfigurableApplicationContext start(String database, String... extraArguments) {
+        return start(database, 0, extraArguments);
+    }
+
+    /**
+     * @param roundTripMicros espera añadida a cada viaje a la base de datos (ver {@link RoundTripLatencyDataSource})
+     */
+    public static ConfigurableApplicationContext start(String database, long roundTripMicros, String... extraArguments) {
+        // El reinicio de devtools arrancaría la aplicación en otro hilo y otro classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // Como argumentos de línea de comandos, para que tengan prioridad sobre application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--app.search.backend=memory",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.com.edutech.supportservice=WARN",
+                "--logging.level.audit=WARN",
+                "--logging.file.name="));
+        arguments.addAll(Arrays.asList(extraArguments));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SupportServiceApplication.class)
+                .web(WebApplicationType.NONE);
+        if (roundTripMicros > 0) {
+            builder.initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof RoundTripLatencyDataSource)
+                            ? new RoundTripLatencyDataSource(dataSource, roundTripMicros)
+                            : bean;
+                }
+            }));
+        }
+        return builder.run(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,77 @@
+package com.edutech.supportservice;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Añade una espera fija a cada viaje a la base de datos (ejecución de sentencia, lote, commit o rollback)
+ * para simular la red frente a H2 en memoria, donde enviar una sentencia no cuesta casi nada.
+ * Un lote JDBC cuenta como un único viaje, igual que con PostgreSQL.
+ */
+public class RoundTripLatencyDataSource extends DelegatingDataSource {
+
+    private final long roundTripNanos;
+
+    public RoundTripLatencyDataSource(DataSource targetDataSource, long roundTripMicros) {
+        super(targetDataSource);
+        this.roundTripNanos = roundTripMicros * 1000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, result -> {
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement);
+            }
+            return result;
+        }, "commit", "rollback");
+    }
+
+    private <S extends Statement> S wrapStatement(Class<S> type, S statement) {
+        return proxy(type, statement, Function.identity(),
+                "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    }
+
+    private <T> T proxy(Class<T> type, T target, Function<Object, Object> wrapResult, String... roundTripMethods) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            for (String roundTripMethod : roundTripMethods) {
+                if (roundTripMethod.equals(method.getName())) {
+                    LockSupport.parkNanos(roundTripNanos);
+                    break;
+                }
+            }
+            try {
+                return wrapResult.apply(method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
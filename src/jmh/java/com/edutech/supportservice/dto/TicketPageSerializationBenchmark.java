@@ -0,0 +1,81 @@
+package com.edutech.supportservice.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de serializar a JSON una página de {@link TicketDTO}, tal como la devuelve /api/tickets/paginated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketPageSerializationBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<TicketDTO> page;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración base que el ObjectMapper de Spring Boot (fechas ISO-8601, módulos de java.time)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 9, 30);
+        List<TicketDTO> tickets = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            TicketDTO dto = new TicketDTO();
+            dto.setId((long) i + 1);
+            dto.setTitle("No puedo acceder al curso " + i);
+            dto.setDescription("Al entrar en la lección 4 aparece un error 500 y no carga el vídeo del módulo " + i + ".");
+            dto.setStatus(i % 3 == 0 ? "NUEVO" : "EN_PROGRESO");
+            dto.setPriority("MEDIA");
+            dto.setUserId(1000L + i);
+            dto.setUserEmail("estudiante" + i + "@edutech.cl");
+            dto.setUserName("Estudiante " + i);
+            dto.setUserType("ESTUDIANTE");
+            dto.setAssignedToId(i % 3 == 0 ? null : 77L);
+            dto.setCategoryId(3L);
+            dto.setCategoryName("Problemas Técnicos");
+            dto.setCourseId(12L);
+            dto.setCourseName("Java Avanzado");
+            dto.setCreatedAt(createdAt.plusMinutes(i));
+            dto.setUpdatedAt(createdAt.plusMinutes(i + 30L));
+            dto.setMessageCount(i % 7);
+            dto.setResponseTimeMinutes(i % 7 > 1 ? 45 : null);
+            dto.setVersion(2L);
+            tickets.add(dto);
+        }
+        page = new PageImpl<>(tickets, PageRequest.of(0, pageSize, Sort.by("createdAt")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,132 @@
+package com.edutech.supportservice.model;
+
+import com.edutech.supportservice.BenchmarkApplication;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas escritas por segundo en transacciones de {@value #ROWS} filas, con y sin lotes JDBC.
+ * "sin-lotes" reproduce el comportamiento previo a las secuencias: un viaje a la base de datos
+ * por cada id y por cada sentencia. "con-lotes" usa la configuración de application.properties.
+ * Con H2 en memoria los viajes son casi gratis, así que también se mide con la latencia
+ * de una red local (roundTripMicros), que es donde los lotes marcan la diferencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class EntityWriteBenchmark {
+
+    private static final int ROWS = 100;
+
+    @Param({"sin-lotes", "con-lotes"})
+    private String mode;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private List<Long> categoryIds;
+    private List<Long> ticketIds;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        context = "sin-lotes".equals(mode)
+                ? BenchmarkApplication.start("writes", roundTripMicros,
+                        "--app.ids.allocation-size.default=1",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                        "--spring.jpa.properties.hibernate.order_inserts=false",
+                        "--spring.jpa.properties.hibernate.order_updates=false")
+                : BenchmarkApplication.start("writes", roundTripMicros);
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        categoryIds = context.getBean(TicketCategoryRepository.class).findAll().stream()
+                .map(TicketCategory::getId)
+                .toList();
+
+        insertTickets();
+        ticketIds = transaction.execute(status -> entityManager
+                .createQuery("SELECT t.id FROM Ticket t ORDER BY t.id", Long.class)
+                .setMaxResults(ROWS)
+                .getResultList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Tickets con su mensaje inicial: dos tablas intercaladas que order_inserts agrupa
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertTickets() {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS / 2; i++) {
+                Ticket ticket = new Ticket();
+                ticket.setTitle("No carga la lección " + i + " del curso");
+                ticket.setUserId(1000L + i);
+                ticket.setPriority("MEDIA");
+                ticket.setCategory(entityManager.getReference(TicketCategory.class, categoryIds.get(i % categoryIds.size())));
+                ticket.setMessageCount(1);
+                entityManager.persist(ticket);
+
+                Message message = new Message();
+                message.setTicket(ticket);
+                message.setContent("Al abrir la lección " + i + " no se muestra ningún contenido.");
+                message.setSenderId(1000L + i);
+                message.setSenderType("USUARIO");
+                entityManager.persist(message);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertFaqs() {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                FAQ faq = new FAQ();
+                faq.setQuestion("¿Cómo recupero el acceso al curso número " + i + "?");
+                faq.setAnswer("Desde la página de perfil, en el apartado de cursos inscritos.");
+                faq.setCategory(entityManager.getReference(TicketCategory.class, categoryIds.get(i % categoryIds.size())));
+                entityManager.persist(faq);
+            }
+        });
+    }
+
+    // UPDATE versionados de filas ya cargadas; batch_versioned_data permite agruparlos
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void updateTickets() {
+        String priority = round++ % 2 == 0 ? "ALTA" : "BAJA";
+        transaction.executeWithoutResult(status -> entityManager
+                .createQuery("SELECT t FROM Ticket t WHERE t.id IN :ids", Ticket.class)
+                .setParameter("ids", ticketIds)
+                .getResultList()
+                .forEach(ticket -> ticket.setPriority(priority)));
+    }
+}
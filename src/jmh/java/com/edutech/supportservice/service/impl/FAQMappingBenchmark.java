@@ -0,0 +1,63 @@
+package com.edutech.supportservice.service.impl;
+
+import com.edutech.supportservice.dto.FAQDTO;
+import com.edutech.supportservice.model.FAQ;
+import com.edutech.supportservice.model.TicketCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de {@link FAQServiceImpl#convertToDTO}, que se ejecuta por cada FAQ al reconstruir el catálogo publicado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FAQMappingBenchmark {
+
+    private FAQServiceImpl faqService;
+    private FAQ faq;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO no usa repositorios
+        faqService = new FAQServiceImpl(null, null, null, null, null, null, null, null);
+
+        TicketCategory category = new TicketCategory();
+        category.setId(2L);
+        category.setName("Cuenta y Acceso");
+
+        faq = new FAQ();
+        faq.setId(15L);
+        faq.setQuestion("¿Cómo restablezco mi contraseña si no recibo el correo?");
+        faq.setAnswer("Revisa la carpeta de spam y, si no aparece en 10 minutos, solicita un nuevo enlace "
+                + "desde la página de inicio de sesión o contacta a soporte indicando tu correo registrado.");
+        faq.setViewCount(1834);
+        faq.setHelpfulVotes(211);
+        faq.setUnhelpfulVotes(17);
+        faq.setPublished(true);
+        faq.setSearchKeywords("contraseña, acceso, correo");
+        faq.setDisplayOrder(1);
+        faq.setCategory(category);
+        faq.setCreatedAt(LocalDateTime.of(2024, 1, 10, 8, 0));
+        faq.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 12, 0));
+    }
+
+    @Benchmark
+    public FAQDTO convertToDTO() {
+        return faqService.convertToDTO(faq);
+    }
+}
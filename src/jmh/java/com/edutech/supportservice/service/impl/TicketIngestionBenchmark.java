@@ -0,0 +1,94 @@
+package com.edutech.supportservice.service.impl;
+
+import com.edutech.supportservice.BenchmarkApplication;
+import com.edutech.supportservice.dto.MessageDTO;
+import com.edutech.supportservice.dto.TicketBatchResultDTO;
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tickets por segundo (con su mensaje inicial) al crearlos uno a uno con {@link TicketServiceImpl#createTicket}
+ * frente a un único {@link TicketServiceImpl#createTickets}. Arranca la aplicación sin servidor web
+ * contra H2 en modo PostgreSQL, por lo que mide el acceso a datos y no la red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TicketIngestionBenchmark {
+
+    private static final int TICKETS_PER_INVOCATION = 200;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private List<TicketDTO> tickets;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("ingestion");
+        ticketService = context.getBean(TicketService.class);
+
+        List<TicketCategory> categories = context.getBean(TicketCategoryRepository.class).findAll();
+        String[] priorities = {"BAJA", "MEDIA", "ALTA", "CRÍTICA"};
+        tickets = new ArrayList<>(TICKETS_PER_INVOCATION);
+        for (int i = 0; i < TICKETS_PER_INVOCATION; i++) {
+            TicketDTO ticket = new TicketDTO();
+            ticket.setTitle("No carga la lección " + i + " del curso");
+            ticket.setDescription("Tras el lanzamiento del curso la lección aparece en blanco.");
+            ticket.setPriority(priorities[i % priorities.length]);
+            ticket.setUserId(1000L + i);
+            ticket.setUserEmail("estudiante" + i + "@edutech.cl");
+            ticket.setUserName("Estudiante " + i);
+            ticket.setUserType("ESTUDIANTE");
+            ticket.setCourseId(12L);
+            ticket.setCourseName("Java Avanzado");
+            ticket.setCategoryId(categories.get(i % categories.size()).getId());
+
+            MessageDTO message = new MessageDTO();
+            message.setContent("Al abrir la lección " + i + " no se muestra ningún contenido.");
+            ticket.getMessages().add(message);
+            tickets.add(ticket);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKETS_PER_INVOCATION)
+    public void createOneByOne(Blackhole blackhole) {
+        for (TicketDTO ticket : tickets) {
+            blackhole.consume(ticketService.createTicket(ticket));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKETS_PER_INVOCATION)
+    public TicketBatchResultDTO createBatch() {
+        return ticketService.createTickets(tickets);
+    }
+}
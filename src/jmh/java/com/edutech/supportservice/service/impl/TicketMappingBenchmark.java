@@ -0,0 +1,97 @@
+package com.edutech.supportservice.service.impl;
+
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.model.Message;
+import com.edutech.supportservice.model.Ticket;
+import com.edutech.supportservice.model.TicketCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de {@link TicketServiceImpl#convertToDTO} según el número de mensajes del ticket.
+ * El mapeo usa los contadores desnormalizados, así que no debería crecer con los mensajes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketMappingBenchmark {
+
+    @Param({"0", "10", "500"})
+    private int messageCount;
+
+    private TicketServiceImpl ticketService;
+    private Ticket ticket;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO no usa repositorios
+        ticketService = new TicketServiceImpl(null, null, null, null, null, null, null, null, null, null, null);
+
+        TicketCategory category = new TicketCategory();
+        category.setId(3L);
+        category.setName("Problemas Técnicos");
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 9, 30);
+        ticket = new Ticket();
+        ticket.setId(42L);
+        ticket.setTitle("No puedo acceder al curso de Java avanzado");
+        ticket.setDescription("Al entrar en la lección 4 aparece un error 500 y no carga el vídeo.");
+        ticket.setStatus("EN_PROGRESO");
+        ticket.setPriority("ALTA");
+        ticket.setUserId(1001L);
+        ticket.setUserEmail("estudiante@edutech.cl");
+        ticket.setUserName("Estudiante Demo");
+        ticket.setUserType("ESTUDIANTE");
+        ticket.setAssignedToId(77L);
+        ticket.setCourseId(12L);
+        ticket.setCourseName("Java Avanzado");
+        ticket.setCategory(category);
+        ticket.setCreatedAt(createdAt);
+        ticket.setUpdatedAt(createdAt.plusHours(2));
+        ticket.setVersion(4L);
+
+        List<Message> messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            Message message = new Message();
+            message.setId((long) i + 1);
+            message.setTicket(ticket);
+            message.setContent("Mensaje " + i + " del hilo de conversación");
+            message.setSenderId(i % 2 == 0 ? 1001L : 77L);
+            message.setSenderType(i % 2 == 0 ? "USUARIO" : "SOPORTE");
+            message.setIsInternalNote(false);
+            message.setCreatedAt(createdAt.plusMinutes(i));
+            messages.add(message);
+        }
+        ticket.setMessages(messages);
+        ticket.setMessageCount(messageCount);
+        if (messageCount > 0) {
+            ticket.setFirstUserMessageAt(createdAt);
+            ticket.setLastActivityAt(createdAt.plusMinutes(messageCount - 1));
+        }
+        if (messageCount > 1) {
+            ticket.setFirstStaffResponseAt(createdAt.plusMinutes(1));
+        }
+    }
+
+    @Benchmark
+    public TicketDTO convertToDTO() {
+        return ticketService.convertToDTO(ticket);
+    }
+}
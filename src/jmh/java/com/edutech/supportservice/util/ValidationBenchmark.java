@@ -0,0 +1,69 @@
+package com.edutech.supportservice.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de las validaciones y la sanitización de {@link ValidationUtil} sobre entradas típicas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final String VALID_EMAIL = "maria.gonzalez+soporte@alumnos.edutech.cl";
+    private static final String INVALID_EMAIL = "maria.gonzalez@@alumnos..edutech";
+    private static final String VALID_URL = "https://cdn.edutech.cl/adjuntos/tickets/42/captura-error-leccion-4.png";
+    private static final String INVALID_URL = "htp:/cdn edutech cl/adjuntos";
+
+    private String html;
+
+    @Setup
+    public void setUp() {
+        // Mensaje de unos 2 KB con el marcado que suelen pegar los usuarios desde el navegador
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 2048) {
+            builder.append("<p>Al abrir la <b>lección 4</b> aparece <span style=\"color:red\">error 500</span>")
+                    .append("<br/><a href=\"https://edutech.cl/curso/12\">ver curso</a></p>");
+        }
+        html = builder.toString();
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return ValidationUtil.isValidEmail(VALID_EMAIL);
+    }
+
+    @Benchmark
+    public boolean isValidEmailRejected() {
+        return ValidationUtil.isValidEmail(INVALID_EMAIL);
+    }
+
+    @Benchmark
+    public boolean isValidUrl() {
+        return ValidationUtil.isValidUrl(VALID_URL);
+    }
+
+    @Benchmark
+    public boolean isValidUrlRejected() {
+        return ValidationUtil.isValidUrl(INVALID_URL);
+    }
+
+    @Benchmark
+    public String sanitizeHtml() {
+        return ValidationUtil.sanitizeHtml(html);
+    }
+}
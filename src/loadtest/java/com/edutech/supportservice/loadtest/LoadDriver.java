@@ -0,0 +1,181 @@
+package com.edutech.supportservice.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.edutech.supportservice.loadtest.SyntheticDataGenerator.STAFF_ID_OFFSET;
+import static com.edutech.supportservice.loadtest.SyntheticDataGenerator.pick;
+
+/**
+ * Lanza la mezcla de operaciones contra la API REST con un número fijo de usuarios en bucle cerrado.
+ * <p>
+ * Cada usuario elige la operación según los pesos de {@code loadtest.mix}, espera la respuesta
+ * completa y pasa a la siguiente. Las latencias de la fase de calentamiento se descartan.
+ */
+public class LoadDriver {
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties properties;
+    private final SyntheticDataGenerator.SeedData seed;
+    private final Map<String, Function<Random, HttpRequest>> operations = new LinkedHashMap<>();
+
+    public LoadDriver(URI baseUri, ObjectMapper objectMapper, LoadTestProperties properties,
+                      SyntheticDataGenerator.SeedData seed) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.seed = seed;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        operations.put("ticket-create", random -> post("/api/tickets",
+                SyntheticDataGenerator.ticketDTO(random, randomUser(random), seed.categoryIds())));
+        operations.put("message-post", random -> {
+            boolean fromStaff = random.nextBoolean();
+            long senderId = fromStaff ? STAFF_ID_OFFSET + random.nextInt(seed.staff()) : randomUser(random);
+            return post("/api/messages",
+                    SyntheticDataGenerator.messageDTO(random, pick(random, seed.ticketIds()), senderId, fromStaff));
+        });
+        operations.put("ticket-get", random -> get("/api/tickets/" + pick(random, seed.ticketIds())));
+        operations.put("ticket-messages", random -> get("/api/messages/ticket/" + pick(random, seed.ticketIds())));
+        operations.put("faq-published", random -> get("/api/faqs/published"));
+        operations.put("faq-get", random -> get("/api/faqs/" + pick(random, seed.faqIds())));
+        operations.put("faq-category", random -> get("/api/faqs/category/" + pick(random, seed.categoryIds())));
+        operations.put("stats", random -> get("/api/tickets/stats"));
+        operations.put("stats-status", random -> get("/api/tickets/stats/status-counts"));
+        operations.put("stats-category", random -> get("/api/tickets/stats/category-counts"));
+    }
+
+    public LoadReport run() throws InterruptedException {
+        WeightedMix mix = new WeightedMix(properties.getMix());
+        LoadReport report = new LoadReport(mix.names());
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(properties.getWarmupSeconds());
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(properties.getDurationSeconds());
+
+        ExecutorService users = Executors.newFixedThreadPool(properties.getUsers());
+        for (int user = 0; user < properties.getUsers(); user++) {
+            Random random = new Random(properties.getSeed().getRandomSeed() * 31 + user);
+            users.execute(() -> runUser(random, mix, report, measureFromNanos, endNanos));
+        }
+        users.shutdown();
+        long graceSeconds = TimeUnit.MILLISECONDS.toSeconds(properties.getRequestTimeoutMs()) + 5;
+        if (!users.awaitTermination(properties.getWarmupSeconds() + properties.getDurationSeconds() + graceSeconds,
+                TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+
+        report.finish(System.nanoTime() - measureFromNanos);
+        return report;
+    }
+
+    private void runUser(Random random, WeightedMix mix, LoadReport report, long measureFromNanos, long endNanos) {
+        while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+            String operation = mix.next(random);
+            HttpRequest request = operations.get(operation).apply(random);
+
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                success = response.statusCode() < 400;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= measureFromNanos) {
+                report.record(operation, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    private long randomUser(Random random) {
+        return 1 + random.nextInt(seed.users());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cuerpo de " + path, e);
+        }
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+    }
+
+    private final class WeightedMix {
+        private final List<String> names = new ArrayList<>();
+        private final int[] cumulativeWeights;
+
+        WeightedMix(Map<String, Integer> weights) {
+            List<Integer> cumulative = new ArrayList<>();
+            int total = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                if (!operations.containsKey(entry.getKey())) {
+                    throw new IllegalArgumentException("Operación desconocida en loadtest.mix: " + entry.getKey()
+                            + " (disponibles: " + operations.keySet() + ")");
+                }
+                if (entry.getValue() == null || entry.getValue() <= 0) {
+                    continue;
+                }
+                total += entry.getValue();
+                names.add(entry.getKey());
+                cumulative.add(total);
+            }
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("loadtest.mix no define ninguna operación con peso positivo");
+            }
+            this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        List<String> names() {
+            return names;
+        }
+
+        String next(Random random) {
+            int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (ticket < cumulativeWeights[i]) {
+                    return names.get(i);
+                }
+            }
+            return names.get(names.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.edutech.supportservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y errores por operación durante la fase medida de la prueba de carga.
+ * Los histogramas registran microsegundos con tres cifras significativas.
+ */
+public class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private long measuredNanos;
+
+    public LoadReport(List<String> operations) {
+        operations.forEach(operation -> endpoints.put(operation, new EndpointStats()));
+    }
+
+    void record(String operation, long latencyNanos, boolean success) {
+        EndpointStats stats = endpoints.get(operation);
+        // Las respuestas por encima del máximo se registran en el máximo en lugar de perderse
+        stats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void finish(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Prueba de carga: %.1f s medidos%n", seconds());
+        out.printf("%-16s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operación", "peticiones", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "máx ms", "errores");
+        endpoints.forEach((operation, stats) -> {
+            Histogram histogram = stats.histogram;
+            out.printf("%-16s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    operation, histogram.getTotalCount(), histogram.getTotalCount() / seconds(),
+                    percentileMs(histogram, 50), percentileMs(histogram, 99), percentileMs(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, stats.errors.sum());
+        });
+        out.printf("%-16s %10d %10.1f %10s %10s %10s %10s %8d%n",
+                "total", totalCount(), throughput(), "", "", "", "", totalErrors());
+    }
+
+    public void writeJson(Path file, ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("measuredSeconds", seconds());
+        json.put("totalRequests", totalCount());
+        json.put("totalErrors", totalErrors());
+        json.put("throughput", throughput());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        endpoints.forEach((operation, stats) -> {
+            Histogram histogram = stats.histogram;
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getTotalCount());
+            values.put("errors", stats.errors.sum());
+            values.put("throughput", histogram.getTotalCount() / seconds());
+            values.put("p50Ms", percentileMs(histogram, 50));
+            values.put("p99Ms", percentileMs(histogram, 99));
+            values.put("p999Ms", percentileMs(histogram, 99.9));
+            values.put("maxMs", histogram.getMaxValue() / 1000.0);
+            operations.put(operation, values);
+        });
+        json.put("operations", operations);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+
+    /**
+     * Comprueba los SLOs configurados y devuelve la descripción de cada incumplimiento
+     */
+    public List<String> checkSlos(LoadTestProperties.Slo slo) {
+        List<String> violations = new ArrayList<>();
+
+        long total = totalCount();
+        if (total == 0) {
+            violations.add("No se completó ninguna petición durante la fase medida");
+            return violations;
+        }
+        double errorRate = (double) totalErrors() / total;
+        if (errorRate > slo.getMaxErrorRate()) {
+            violations.add(String.format("tasa de errores %.4f > %.4f", errorRate, slo.getMaxErrorRate()));
+        }
+        if (slo.getMinThroughput() > 0 && throughput() < slo.getMinThroughput()) {
+            violations.add(String.format("rendimiento %.1f req/s < %.1f req/s", throughput(), slo.getMinThroughput()));
+        }
+
+        slo.getEndpoints().forEach((operation, limits) -> {
+            EndpointStats stats = endpoints.get(operation);
+            if (stats == null || stats.histogram.getTotalCount() == 0) {
+                return;
+            }
+            checkPercentile(violations, operation, stats.histogram, "p50", 50, limits.getP50Ms());
+            checkPercentile(violations, operation, stats.histogram, "p99", 99, limits.getP99Ms());
+            checkPercentile(violations, operation, stats.histogram, "p99.9", 99.9, limits.getP999Ms());
+        });
+        return violations;
+    }
+
+    private void checkPercentile(List<String> violations, String operation, Histogram histogram,
+                                 String label, double percentile, Double limitMs) {
+        if (limitMs == null) {
+            return;
+        }
+        double actualMs = percentileMs(histogram, percentile);
+        if (actualMs > limitMs) {
+            violations.add(String.format("%s %s %.2f ms > %.2f ms", operation, label, actualMs, limitMs));
+        }
+    }
+
+    private static double percentileMs(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private double seconds() {
+        return Math.max(measuredNanos, 1) / 1_000_000_000.0;
+    }
+
+    private long totalCount() {
+        return endpoints.values().stream().mapToLong(stats -> stats.histogram.getTotalCount()).sum();
+    }
+
+    private long totalErrors() {
+        return endpoints.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    private double throughput() {
+        return totalCount() / seconds();
+    }
+
+    private static final class EndpointStats {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,58 @@
+package com.edutech.supportservice.loadtest;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de la prueba de carga, enlazada desde las propiedades {@code loadtest.*}
+ * del perfil {@code loadtest}.
+ */
+@Data
+public class LoadTestProperties {
+
+    private Seed seed = new Seed();
+
+    // Usuarios concurrentes en bucle cerrado: cada uno lanza la siguiente petición al recibir la respuesta
+    private int users = 32;
+
+    private int warmupSeconds = 10;
+
+    private int durationSeconds = 60;
+
+    private int requestTimeoutMs = 10000;
+
+    private String reportFile = "target/loadtest-report.json";
+
+    // Peso relativo de cada operación; las que no aparecen no se ejecutan
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+
+    private Slo slo = new Slo();
+
+    @Data
+    public static class Seed {
+        private long randomSeed = 42;
+        private int tickets = 2000;
+        private int messagesPerTicket = 4;
+        private int faqs = 150;
+        private int users = 500;
+        private int staff = 20;
+    }
+
+    @Data
+    public static class Slo {
+        // Fracción máxima de respuestas con error (estado >= 400 o excepción) sobre el total medido
+        private double maxErrorRate = 0.001;
+        // Peticiones por segundo mínimas sumando todas las operaciones; 0 lo desactiva
+        private double minThroughput = 0;
+        private Map<String, EndpointSlo> endpoints = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class EndpointSlo {
+        private Double p50Ms;
+        private Double p99Ms;
+        private Double p999Ms;
+    }
+}
@@ -0,0 +1,75 @@
+package com.edutech.supportservice.loadtest;
+
+import com.edutech.supportservice.SupportServiceApplication;
+import com.edutech.supportservice.repository.FAQRepository;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.service.FAQService;
+import com.edutech.supportservice.service.MessageService;
+import com.edutech.supportservice.service.TicketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Prueba de carga extremo a extremo: arranca el servicio con el perfil {@code loadtest}
+ * (H2 en modo PostgreSQL), genera los datos sintéticos, lanza la mezcla de operaciones por HTTP
+ * y compara las latencias con los SLOs configurados.
+ * <p>
+ * Termina con código 1 si se incumple algún SLO, de modo que {@code mvn -Ploadtest verify} falle.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // El reinicio de devtools arrancaría la aplicación en otro hilo y otro classloader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> violations;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SupportServiceApplication.class)
+                .profiles("loadtest")
+                .run(args)) {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bindOrCreate("loadtest", LoadTestProperties.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            long seedStart = System.nanoTime();
+            SyntheticDataGenerator.SeedData seed = new SyntheticDataGenerator(
+                    context.getBean(TicketService.class),
+                    context.getBean(MessageService.class),
+                    context.getBean(FAQService.class),
+                    context.getBean(TicketCategoryRepository.class),
+                    context.getBean(FAQRepository.class),
+                    properties.getSeed()).generate();
+            System.out.printf("Datos sintéticos: %d tickets, %d FAQs publicadas en %.1f s%n",
+                    seed.ticketIds().size(), seed.faqIds().size(), (System.nanoTime() - seedStart) / 1e9);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Lanzando carga: %d usuarios, %d s de calentamiento y %d s medidos%n",
+                    properties.getUsers(), properties.getWarmupSeconds(), properties.getDurationSeconds());
+            LoadReport report = new LoadDriver(URI.create("http://localhost:" + port), objectMapper, properties, seed).run();
+
+            report.print(System.out);
+            Path reportFile = Path.of(properties.getReportFile());
+            report.writeJson(reportFile, objectMapper);
+            System.out.println("Informe escrito en " + reportFile.toAbsolutePath());
+
+            violations = report.checkSlos(properties.getSlo());
+        }
+
+        if (!violations.isEmpty()) {
+            System.err.println("SLOs incumplidos:");
+            violations.forEach(violation -> System.err.println("  - " + violation));
+            System.exit(1);
+        }
+        System.out.println("Todos los SLOs se cumplen");
+        System.exit(0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.edutech.supportservice.loadtest;
+
+import com.edutech.supportservice.dto.FAQDTO;
+import com.edutech.supportservice.dto.MessageDTO;
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.model.FAQ;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.repository.FAQRepository;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.service.FAQService;
+import com.edutech.supportservice.service.MessageService;
+import com.edutech.supportservice.service.TicketService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Genera tickets, mensajes y FAQs sintéticos a través de los servicios, de modo que contadores
+ * desnormalizados, índice de búsqueda y catálogo publicado queden igual que con datos reales.
+ * Los identificadores se leen de los repositorios, ya que fuera de una petición no hay sesión
+ * abierta para las colecciones perezosas que recorren los DTOs.
+ * La semilla fija hace que dos ejecuciones con la misma configuración partan del mismo estado.
+ */
+public class SyntheticDataGenerator {
+
+    static final String[] PRIORITIES = {"BAJA", "MEDIA", "ALTA", "CRÍTICA"};
+    static final String[] USER_TYPES = {"ESTUDIANTE", "ESTUDIANTE", "ESTUDIANTE", "INSTRUCTOR", "ADMINISTRADOR"};
+    static final long STAFF_ID_OFFSET = 100_000L;
+
+    private static final String[] SUBJECTS = {"No puedo acceder", "Error al cargar", "Duda sobre", "Problema con",
+            "Consulta sobre", "Cobro duplicado en", "No se descarga", "Certificado de"};
+    private static final String[] TOPICS = {"el curso de Java", "la lección 4", "el vídeo introductorio", "la evaluación final",
+            "mi suscripción", "el foro del curso", "el material complementario", "la factura de marzo", "mi perfil"};
+    private static final String[] WORDS = {"plataforma", "curso", "error", "pago", "vídeo", "certificado", "acceso",
+            "contraseña", "evaluación", "lección", "instructor", "navegador", "móvil", "descarga", "matrícula"};
+
+    private final TicketService ticketService;
+    private final MessageService messageService;
+    private final FAQService faqService;
+    private final TicketCategoryRepository categoryRepository;
+    private final FAQRepository faqRepository;
+    private final LoadTestProperties.Seed settings;
+    private final Random random;
+
+    public SyntheticDataGenerator(TicketService ticketService,
+                                  MessageService messageService,
+                                  FAQService faqService,
+                                  TicketCategoryRepository categoryRepository,
+                                  FAQRepository faqRepository,
+                                  LoadTestProperties.Seed settings) {
+        this.ticketService = ticketService;
+        this.messageService = messageService;
+        this.faqService = faqService;
+        this.categoryRepository = categoryRepository;
+        this.faqRepository = faqRepository;
+        this.settings = settings;
+        this.random = new Random(settings.getRandomSeed());
+    }
+
+    public SeedData generate() {
+        List<Long> categoryIds = categoryRepository.findByActiveTrue().stream()
+                .map(TicketCategory::getId)
+                .toList();
+
+        List<Long> ticketIds = new ArrayList<>(settings.getTickets());
+        for (int i = 0; i < settings.getTickets(); i++) {
+            ticketIds.add(seedTicket(i, categoryIds));
+        }
+
+        // Se incluyen las FAQs publicadas por el DataInitializer
+        for (int i = 0; i < settings.getFaqs(); i++) {
+            seedFAQ(i, categoryIds);
+        }
+        List<Long> faqIds = faqRepository.findByPublishedTrueOrderByDisplayOrderAsc().stream()
+                .map(FAQ::getId)
+                .toList();
+
+        return new SeedData(List.copyOf(ticketIds), faqIds, categoryIds, settings.getUsers(), settings.getStaff());
+    }
+
+    private Long seedTicket(int index, List<Long> categoryIds) {
+        long userId = 1 + random.nextInt(settings.getUsers());
+        TicketDTO ticket = ticketDTO(random, userId, categoryIds);
+        ticket.setTitle(ticket.getTitle() + " #" + index);
+        Long ticketId = ticketService.createTicket(ticket).getId();
+
+        long staffId = STAFF_ID_OFFSET + random.nextInt(settings.getStaff());
+        boolean assigned = random.nextInt(10) < 7;
+        if (assigned) {
+            ticketService.assignTicket(ticketId, staffId);
+        }
+
+        for (int m = 0; m < settings.getMessagesPerTicket(); m++) {
+            boolean fromStaff = assigned && m % 2 == 1;
+            messageService.createMessage(messageDTO(random, ticketId, fromStaff ? staffId : userId, fromStaff));
+        }
+
+        if (assigned && random.nextInt(4) == 0) {
+            ticketService.changeTicketStatus(ticketId, random.nextBoolean() ? "RESUELTO" : "CERRADO");
+        }
+        return ticketId;
+    }
+
+    private void seedFAQ(int index, List<Long> categoryIds) {
+        FAQDTO faq = new FAQDTO();
+        faq.setQuestion("¿Cómo resolver " + pick(random, TOPICS) + " (" + index + ")?");
+        faq.setAnswer(sentence(random, 40));
+        faq.setCategoryId(pick(random, categoryIds));
+        faq.setSearchKeywords(pick(random, WORDS) + "," + pick(random, WORDS));
+        faq.setDisplayOrder(index);
+        // Una de cada cinco queda en borrador, como en un catálogo real
+        faq.setPublished(random.nextInt(5) != 0);
+        faqService.createFAQ(faq);
+    }
+
+    static TicketDTO ticketDTO(Random random, long userId, List<Long> categoryIds) {
+        TicketDTO ticket = new TicketDTO();
+        ticket.setTitle(pick(random, SUBJECTS) + " " + pick(random, TOPICS));
+        ticket.setDescription(sentence(random, 30));
+        ticket.setPriority(pick(random, PRIORITIES));
+        ticket.setUserId(userId);
+        ticket.setUserEmail("usuario" + userId + "@edutech.cl");
+        ticket.setUserName("Usuario " + userId);
+        ticket.setUserType(pick(random, USER_TYPES));
+        ticket.setCourseId(1L + random.nextInt(50));
+        ticket.setCourseName("Curso " + ticket.getCourseId());
+        ticket.setCategoryId(pick(random, categoryIds));
+        return ticket;
+    }
+
+    static MessageDTO messageDTO(Random random, long ticketId, long senderId, boolean fromStaff) {
+        MessageDTO message = new MessageDTO();
+        message.setTicketId(ticketId);
+        message.setSenderId(senderId);
+        message.setSenderType(fromStaff ? "SOPORTE" : "USUARIO");
+        message.setSenderName((fromStaff ? "Agente " : "Usuario ") + senderId);
+        message.setContent(sentence(random, 12 + random.nextInt(40)));
+        message.setIsInternalNote(false);
+        return message;
+    }
+
+    static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(pick(random, WORDS));
+        }
+        return text.append('.').toString();
+    }
+
+    static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * Identificadores disponibles para construir las peticiones de la carga
+     */
+    public record SeedData(List<Long> ticketIds, List<Long> faqIds, List<Long> categoryIds, int users, int staff) {
+    }
+}
@@ -1,14 +1,55 @@
 package com.edutech.supportservice.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
- * Configuración para habilitar el sistema de caché
+ * Configuración para habilitar el sistema de caché.
+ * Cada caché tiene su propio tamaño y expiración; las estadísticas de Caffeine
+ * se publican en Actuator (métricas cache.gets, cache.puts, cache.evictions).
+ * <p>
+ * Dentro de una transacción, los put y evict de {@code @CachePut}/{@code @CacheEvict} se aplican
+ * al confirmarla: si se aplicaran antes, una lectura concurrente podría volver a cachear la fila
+ * anterior y, si la transacción se deshace, la caché quedaría con datos que nunca se guardaron.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    // La configuración detallada se maneja en application.properties
-    // usando spring.cache.caffeine.spec
+
+    public static final String ACTIVE_CATEGORIES = "activeCategories";
+    public static final String CATEGORY_BY_ID = "categoryById";
+    public static final String CATEGORY_BY_NAME = "categoryByName";
+    public static final String FAQ_BY_ID = "faqById";
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Categorías: pocas filas y cambios muy poco frecuentes
+        cacheManager.registerCustomCache(ACTIVE_CATEGORIES, buildCache(1, Duration.ofMinutes(30)));
+        cacheManager.registerCustomCache(CATEGORY_BY_ID, buildCache(200, Duration.ofMinutes(30)));
+        cacheManager.registerCustomCache(CATEGORY_BY_NAME, buildCache(200, Duration.ofMinutes(30)));
+
+        // FAQ individual: incluye contadores de visitas y votos, por lo que expira antes.
+        // El catálogo publicado no usa caché: se sirve desde FAQSnapshot
+        cacheManager.registerCustomCache(FAQ_BY_ID, buildCache(1000, Duration.ofMinutes(5)));
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Cache<Object, Object> buildCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
 }
@@ -0,0 +1,69 @@
+package com.edutech.supportservice.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita la concurrencia de acceso a la base de datos envolviendo el DataSource en un
+ * {@link ConcurrencyLimitedDataSource}. Se activa con {@code app.db.concurrency-limit.enabled=true}
+ * (perfil {@code virtual-threads}); por defecto el número de permisos coincide con el tamaño del pool de Hikari.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty("app.db.concurrency-limit.max-concurrency", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                long acquireTimeoutMs = environment.getProperty("app.db.concurrency-limit.acquire-timeout-ms", Long.class, 5000L);
+                log.info("Acceso a la base de datos limitado a {} conexiones concurrentes (espera máxima {} ms)",
+                        maxConcurrency, acquireTimeoutMs);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            ConcurrencyLimitedDataSource limited;
+            try {
+                limited = dataSource.unwrap(ConcurrencyLimitedDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("db.concurrency.active", limited, ConcurrencyLimitedDataSource::getActiveConnections)
+                    .description("Conexiones prestadas bajo el limitador de concurrencia")
+                    .register(registry);
+            Gauge.builder("db.concurrency.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                    .description("Hilos esperando permiso para obtener una conexión")
+                    .register(registry);
+            Gauge.builder("db.concurrency.max", limited, ConcurrencyLimitedDataSource::getMaxConcurrency)
+                    .description("Conexiones concurrentes permitidas")
+                    .register(registry);
+            FunctionTimer.builder("db.concurrency.acquire", limited, ConcurrencyLimitedDataSource::getAcquisitions,
+                            ConcurrencyLimitedDataSource::getAcquireNanos, TimeUnit.NANOSECONDS)
+                    .description("Espera por un permiso antes de pedir la conexión al pool")
+                    .register(registry);
+        };
+    }
+}
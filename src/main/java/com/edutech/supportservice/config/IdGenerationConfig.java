@@ -0,0 +1,28 @@
+package com.edutech.supportservice.config;
+
+import com.edutech.supportservice.model.PooledSequenceGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * Pasa los tamaños de bloque {@code app.ids.allocation-size.*} a la configuración de Hibernate,
+ * donde los lee {@link PooledSequenceGenerator} al construir cada secuencia.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(Environment environment) {
+        Map<String, Integer> allocationSizes = Binder.get(environment)
+                .bind("app.ids.allocation-size", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        return properties -> allocationSizes.forEach((name, size) ->
+                properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_PREFIX + name, size));
+    }
+}
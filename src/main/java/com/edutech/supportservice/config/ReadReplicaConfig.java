@@ -0,0 +1,105 @@
+package com.edutech.supportservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Envía las transacciones de solo lectura a las réplicas de {@code app.db.replicas.nodes} y el resto al primario.
+ * Se activa con {@code app.db.replicas.enabled=true} (perfil {@code replicas}).
+ * <p>
+ * El DataSource principal se envuelve en un {@link LazyConnectionDataSourceProxy}: la conexión física se pide
+ * en la primera sentencia, cuando la transacción ya se marcó readOnly, y entonces se toma de
+ * {@link ReadReplicaDataSource}. Requiere {@code spring.jpa.open-in-view=false}: con la sesión abierta durante
+ * toda la petición, la primera transacción fijaría la conexión y una escritura posterior a una lectura
+ * acabaría en la réplica.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicas readReplicas(Environment environment) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("app.db.replicas.enabled=true requiere spring.jpa.open-in-view=false");
+        }
+        ReadReplicaProperties properties = Binder.get(environment)
+                .bindOrCreate("app.db.replicas", ReadReplicaProperties.class);
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("app.db.replicas.enabled=true sin réplicas en app.db.replicas.nodes");
+        }
+        return new ReadReplicas(properties);
+    }
+
+    // Ordenado para aplicarse antes que el limitador de concurrencia, que así envuelve también las lecturas
+    @Bean
+    public static BeanPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+        return new RoutingPostProcessor(readReplicas);
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(ReadReplicas readReplicas) {
+        return registry -> {
+            for (ReadReplicas.Replica replica : readReplicas.getReplicas()) {
+                // Las mismas métricas hikaricp.* que Spring Boot registra para el pool del primario
+                HikariDataSource pool = replica.getPool();
+                if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+                Gauge.builder("db.replica.up", replica, r -> r.isUp() ? 1 : 0)
+                        .description("Réplica aceptando conexiones en la última comprobación")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+                Gauge.builder("db.replica.lag", replica, ReadReplicas.Replica::getLagMs)
+                        .description("Retraso de replicación en la última comprobación")
+                        .baseUnit("milliseconds")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+            }
+            FunctionCounter.builder("db.replica.fallbacks", readReplicas, ReadReplicas::getFallbacks)
+                    .description("Lecturas enviadas al primario por no haber réplica disponible")
+                    .register(registry);
+        };
+    }
+
+    private static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReadReplicas> readReplicas;
+
+        RoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+            this.readReplicas = readReplicas;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            ReadReplicas replicas = readReplicas.getObject();
+            LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+            routing.setReadOnlyDataSource(new ReadReplicaDataSource(primary, replicas));
+            log.info("Transacciones de solo lectura enviadas a {} réplica(s)", replicas.getReplicas().size());
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
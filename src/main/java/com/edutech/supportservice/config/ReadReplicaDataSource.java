@@ -0,0 +1,38 @@
+package com.edutech.supportservice.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origen de las conexiones de solo lectura: una réplica disponible y al día o, si no hay ninguna,
+ * el primario. {@link ReadReplicaConfig} lo registra como DataSource de solo lectura de un
+ * LazyConnectionDataSourceProxy, que solo lo usa cuando la transacción se marcó readOnly antes
+ * de la primera sentencia.
+ */
+public class ReadReplicaDataSource extends DelegatingDataSource {
+
+    private final ReadReplicas replicas;
+
+    public ReadReplicaDataSource(DataSource primary, ReadReplicas replicas) {
+        super(primary);
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadReplicaRouting.isPrimaryRequired()) {
+            ReadReplicas.Replica replica = replicas.select();
+            if (replica != null) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    replicas.markDown(replica, e);
+                }
+            }
+        }
+        return obtainTargetDataSource().getConnection();
+    }
+}
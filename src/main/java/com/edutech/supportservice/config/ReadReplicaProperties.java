@@ -0,0 +1,41 @@
+package com.edutech.supportservice.config;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura ({@code app.db.replicas.*}).
+ */
+@Data
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Retraso máximo de replicación con el que una réplica sigue recibiendo lecturas
+     */
+    private long maxLagMs = 2000;
+
+    /**
+     * Espera máxima por una conexión de réplica antes de leer del primario
+     */
+    private long connectionTimeoutMs = 1000;
+
+    /**
+     * Consulta que devuelve el retraso en milisegundos. Si no se indica, se usa la de PostgreSQL para
+     * las URL jdbc:postgresql y ninguna para el resto (H2), que se consideran siempre al día.
+     */
+    private String lagQuery;
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,43 @@
+package com.edutech.supportservice.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Fuerza que las lecturas de un bloque se hagan contra el primario aunque la transacción sea de solo lectura.
+ * <p>
+ * Lo necesitan las lecturas que no pueden ir por detrás de la última confirmación: las que reconstruyen
+ * estado en memoria a partir de la base de datos y dan por incluidos los eventos ya recibidos, y las que
+ * rellenan cachés que no se vuelven a invalidar hasta el siguiente cambio. Sin réplicas configuradas no
+ * tiene ningún efecto. La decisión se toma al pedir la conexión física, así que el bloque debe envolver
+ * la transacción completa o ejecutarse antes de la primera sentencia.
+ */
+public final class ReadReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadReplicaRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (Boolean.TRUE.equals(PRIMARY_REQUIRED.get())) {
+            return work.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+}
@@ -0,0 +1,194 @@
+package com.edutech.supportservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pools de conexiones de las réplicas de lectura y su estado.
+ * <p>
+ * Cada réplica se comprueba periódicamente: debe aceptar conexiones y su retraso de replicación no
+ * puede superar {@code app.db.replicas.max-lag-ms}. Las lecturas se reparten entre las réplicas
+ * disponibles, y cada hilo sigue en la misma mientras lo esté y no cambie el conjunto, para que la
+ * sonda de ETag y el cuerpo de una petición se lean de la misma copia. Un fallo al pedir conexión
+ * la marca como caída hasta la siguiente comprobación.
+ */
+@Slf4j
+public class ReadReplicas implements DisposableBean {
+
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 5;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    // Cambia cada vez que una réplica entra o sale del reparto; invalida la réplica fijada por cada hilo
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ThreadLocal<Assignment> assignment = new ThreadLocal<>();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReadReplicas(ReadReplicaProperties properties) {
+        this.maxLagMs = properties.getMaxLagMs();
+        List<ReadReplicaProperties.Node> nodes = properties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReadReplicaProperties.Node node = nodes.get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(node.getUrl());
+            config.setUsername(node.getUsername());
+            config.setPassword(node.getPassword());
+            config.setMaximumPoolSize(node.getMaximumPoolSize());
+            config.setReadOnly(true);
+            config.setConnectionTimeout(properties.getConnectionTimeoutMs());
+            // Una réplica caída al arrancar no impide levantar el servicio: se lee del primario
+            config.setInitializationFailTimeout(-1);
+
+            String lagQuery = properties.getLagQuery() != null ? properties.getLagQuery()
+                    : node.getUrl().startsWith("jdbc:postgresql:") ? POSTGRES_LAG_QUERY : null;
+            replicas.add(new Replica(config.getPoolName(), new HikariDataSource(config), lagQuery));
+            log.info("Réplica de lectura {}: {}", config.getPoolName(), node.getUrl());
+        }
+    }
+
+    /**
+     * Réplica para la siguiente lectura, o null si ninguna está disponible y al día
+     */
+    Replica select() {
+        int currentGeneration = generation.get();
+        Assignment current = assignment.get();
+        if (current != null && current.generation() == currentGeneration && current.replica().isEligible(maxLagMs)) {
+            return current.replica();
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isEligible(maxLagMs)) {
+                assignment.set(new Assignment(replica, currentGeneration));
+                return replica;
+            }
+        }
+        assignment.remove();
+        fallbacks.incrementAndGet();
+        return null;
+    }
+
+    void markDown(Replica replica, SQLException cause) {
+        fallbacks.incrementAndGet();
+        if (replica.up) {
+            replica.up = false;
+            generation.incrementAndGet();
+            log.warn("Réplica {} sin conexión, lecturas al primario: {}", replica.getName(), cause.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.db.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean wasEligible = replica.isEligible(maxLagMs);
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement()) {
+                long lagMs = 0;
+                if (StringUtils.hasText(replica.lagQuery)) {
+                    statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+                    try (ResultSet rs = statement.executeQuery(replica.lagQuery)) {
+                        lagMs = rs.next() ? rs.getLong(1) : 0;
+                    }
+                }
+                replica.lagMs = lagMs;
+                replica.up = true;
+            } catch (SQLException e) {
+                replica.up = false;
+                if (wasEligible) {
+                    log.warn("Réplica {} no disponible, lecturas al primario: {}", replica.getName(), e.getMessage());
+                }
+            }
+
+            boolean eligible = replica.isEligible(maxLagMs);
+            if (eligible != wasEligible) {
+                generation.incrementAndGet();
+                if (eligible) {
+                    log.info("Réplica {} disponible (retraso {} ms)", replica.getName(), replica.lagMs);
+                } else if (replica.up) {
+                    log.warn("Réplica {} retrasada {} ms (máximo {} ms), lecturas al primario",
+                            replica.getName(), replica.lagMs, maxLagMs);
+                }
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Lecturas de solo lectura que acabaron en el primario por no haber réplica disponible
+     */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private final String lagQuery;
+        // Sin comprobar todavía: hasta la primera comprobación se lee del primario
+        private volatile boolean up;
+        private volatile long lagMs;
+
+        private Replica(String name, HikariDataSource pool, String lagQuery) {
+            this.name = name;
+            this.pool = pool;
+            this.lagQuery = lagQuery;
+        }
+
+        Connection getConnection() throws SQLException {
+            return pool.getConnection();
+        }
+
+        boolean isEligible(long maxLagMs) {
+            return up && lagMs <= maxLagMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getPool() {
+            return pool;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public long getLagMs() {
+            return lagMs;
+        }
+    }
+
+    private record Assignment(Replica replica, int generation) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.edutech.supportservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración para habilitar las tareas programadas
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,41 @@
+package com.edutech.supportservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Registro de consultas lentas con umbral {@code app.db.slow-query.threshold-ms} (0 lo desactiva).
+ * <p>
+ * El tiempo de cada método de repositorio ya lo mide Spring Boot en el timer
+ * {@code spring.data.repository.invocations} (etiquetas repository y method) con un listener que añade
+ * a cada repositorio al crearlo; aquí se añade otro del mismo modo, {@link SlowRepositoryInvocationLogger},
+ * para las llamadas que superan el umbral. El SQL de las sentencias lentas lo registra Hibernate en
+ * {@code org.hibernate.SQL_SLOW} con el mismo umbral ({@code hibernate.log_slow_query}).
+ */
+@Slf4j
+@Configuration
+public class SlowQueryLogConfig {
+
+    @Bean
+    public static BeanPostProcessor slowRepositoryInvocationPostProcessor(Environment environment) {
+        long thresholdMs = environment.getProperty("app.db.slow-query.threshold-ms", Long.class, 0L);
+        SlowRepositoryInvocationLogger listener = thresholdMs > 0 ? new SlowRepositoryInvocationLogger(thresholdMs) : null;
+        if (listener != null) {
+            log.info("Llamadas a repositorios de más de {} ms registradas en el log slowquery", thresholdMs);
+        }
+        return new BeanPostProcessor() {
+            // Antes de inicializar: el repositorio se crea en afterPropertiesSet de su factoría
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (listener != null && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
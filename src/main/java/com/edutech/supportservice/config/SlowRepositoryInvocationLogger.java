@@ -0,0 +1,40 @@
+package com.edutech.supportservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe en el logger {@code slowquery} las llamadas a repositorios que superan el umbral, con el
+ * método que las hizo (p. ej. {@code TicketRepository.findByUserId}). El tiempo incluye la espera por
+ * la conexión cuando la llamada es la primera sentencia de su transacción, así que una espera larga
+ * en el pool aparece aquí aunque la consulta sea rápida; hikaricp.connections.acquire lo distingue.
+ */
+public class SlowRepositoryInvocationLogger implements RepositoryMethodInvocationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger("slowquery");
+
+    private final long thresholdMs;
+
+    public SlowRepositoryInvocationLogger(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long durationMs = invocation.getDuration(TimeUnit.MILLISECONDS);
+        if (durationMs < thresholdMs) {
+            return;
+        }
+
+        String method = invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName();
+        RepositoryMethodInvocationResult result = invocation.getResult();
+        if (result != null && result.getError() != null) {
+            logger.warn("{} tardó {} ms y falló: {}", method, durationMs, result.getError().toString());
+        } else {
+            logger.warn("{} tardó {} ms", method, durationMs);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.edutech.supportservice.config;
+
+import com.edutech.supportservice.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rellena los contadores desnormalizados de los tickets existentes (message_count,
+ * first_user_message_at, first_staff_response_at, last_activity_at) por lotes.
+ * Solo procesa filas con message_count NULL, por lo que no hace nada una vez completado.
+ */
+@Slf4j
+@Component
+public class TicketCountersBackfill implements CommandLineRunner {
+
+    private final TicketRepository ticketRepository;
+    private final int batchSize;
+
+    @Autowired
+    public TicketCountersBackfill(TicketRepository ticketRepository,
+                                  @Value("${app.tickets.counters.backfill-batch-size:500}") int batchSize) {
+        this.ticketRepository = ticketRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        int total = 0;
+        int updated;
+        do {
+            updated = ticketRepository.backfillMessageCounters(batchSize);
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            log.info("Contadores de mensajes rellenados para {} tickets", total);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.edutech.supportservice.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.http.ResponseEntity;
 import com.edutech.supportservice.service.TicketCategoryService;
 import com.edutech.supportservice.dto.TicketCategoryDTO;
+import com.edutech.supportservice.util.ETagUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 
 @RestController
@@ -12,19 +16,22 @@ import java.util.List;
 public class CategoryController {
 
     private final TicketCategoryService categoryService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public CategoryController(TicketCategoryService categoryService) {
+    public CategoryController(TicketCategoryService categoryService, ObjectMapper objectMapper) {
         this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<TicketCategoryDTO>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<TicketCategoryDTO>> getAllCategories(WebRequest request) throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getAllCategories());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketCategoryDTO> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(id));
+    public ResponseEntity<TicketCategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request)
+            throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getCategoryById(id));
     }
 }
@@ -2,14 +2,23 @@ package com.edutech.supportservice.controller;
 
 import com.edutech.supportservice.dto.FAQDTO;
 import com.edutech.supportservice.service.FAQService;
+import com.edutech.supportservice.service.snapshot.FAQSnapshot;
+import com.edutech.supportservice.util.ETagUtil;
+import com.edutech.supportservice.util.NdjsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -19,30 +28,41 @@ import java.util.Map;
 public class FAQController {
 
     private final FAQService faqService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public FAQController(FAQService faqService) {
+    public FAQController(FAQService faqService, ObjectMapper objectMapper) {
         this.faqService = faqService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<FAQDTO>> getAllFAQs() {
-        return ResponseEntity.ok(faqService.getAllFAQs());
+    public ResponseEntity<List<FAQDTO>> getAllFAQs(WebRequest request) {
+        return ETagUtil.conditional(request, faqService.getAllFAQsETag(), faqService::getAllFAQs);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFAQs() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.body(objectMapper, faqService::streamAllFAQs));
     }
 
     @GetMapping("/published")
-    public ResponseEntity<List<FAQDTO>> getPublishedFAQs() {
-        return ResponseEntity.ok(faqService.getPublishedFAQs());
+    public ResponseEntity<byte[]> getPublishedFAQs() {
+        return snapshotResponse(faqService.getPublishedPayload());
     }
 
+    // El ETag se calcula del mismo DTO que se devuelve, que puede venir de la caché faqById:
+    // una sonda de la base de datos podría ir por delante de la caché
     @GetMapping("/{id}")
-    public ResponseEntity<FAQDTO> getFAQById(@PathVariable Long id) {
-        return ResponseEntity.ok(faqService.getFAQById(id));
+    public ResponseEntity<FAQDTO> getFAQById(@PathVariable Long id, WebRequest request) throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, faqService.getFAQById(id));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<FAQDTO>> getFAQsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(faqService.getFAQsByCategory(categoryId));
+    public ResponseEntity<byte[]> getFAQsByCategory(@PathVariable Long categoryId) {
+        return snapshotResponse(faqService.getPublishedPayloadByCategory(categoryId));
     }
 
     @GetMapping("/search")
@@ -92,18 +112,21 @@ public class FAQController {
     }
 
     @PatchMapping("/{id}/view")
-    public ResponseEntity<FAQDTO> incrementViewCount(@PathVariable Long id) {
-        return ResponseEntity.ok(faqService.incrementViewCount(id));
+    public ResponseEntity<Void> incrementViewCount(@PathVariable Long id) {
+        faqService.incrementViewCount(id);
+        return ResponseEntity.accepted().build();
     }
 
     @PatchMapping("/{id}/helpful")
-    public ResponseEntity<FAQDTO> addHelpfulVote(@PathVariable Long id) {
-        return ResponseEntity.ok(faqService.addHelpfulVote(id));
+    public ResponseEntity<Void> addHelpfulVote(@PathVariable Long id) {
+        faqService.addHelpfulVote(id);
+        return ResponseEntity.accepted().build();
     }
 
     @PatchMapping("/{id}/unhelpful")
-    public ResponseEntity<FAQDTO> addUnhelpfulVote(@PathVariable Long id) {
-        return ResponseEntity.ok(faqService.addUnhelpfulVote(id));
+    public ResponseEntity<Void> addUnhelpfulVote(@PathVariable Long id) {
+        faqService.addUnhelpfulVote(id);
+        return ResponseEntity.accepted().build();
     }
 
     @GetMapping("/most-viewed")
@@ -123,4 +146,13 @@ public class FAQController {
         Double ratio = faqService.getHelpfulnessRatio();
         return ResponseEntity.ok(Map.of("helpfulnessRatio", ratio != null ? ratio : 0));
     }
+
+    // JSON ya serializado del catálogo publicado; Spring responde 304 si el If-None-Match coincide con el ETag
+    private ResponseEntity<byte[]> snapshotResponse(FAQSnapshot.Payload payload) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(payload.getEtag())
+                .body(payload.getJson());
+    }
 }
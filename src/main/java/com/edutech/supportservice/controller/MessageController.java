@@ -1,5 +1,6 @@
 package com.edutech.supportservice.controller;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
 import com.edutech.supportservice.dto.MessageDTO;
 import com.edutech.supportservice.service.MessageService;
 import jakarta.validation.Valid;
@@ -27,6 +28,14 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getMessagesByTicket(ticketId));
     }
 
+    @GetMapping("/ticket/{ticketId}/feed")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getMessageFeedByTicket(
+            @PathVariable Long ticketId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.getMessageFeedByTicket(ticketId, after, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MessageDTO> getMessageById(@PathVariable Long id) {
         return ResponseEntity.ok(messageService.getMessageById(id));
@@ -43,17 +52,32 @@ public class MessageController {
     }
 
     @PatchMapping("/{id}/mark-read")
-    public ResponseEntity<Void> markMessageAsRead(@PathVariable Long id) {
-        messageService.markMessageAsRead(id);
+    public ResponseEntity<Void> markMessageAsRead(
+            @PathVariable Long id,
+            @RequestParam Long userId) {
+        messageService.markMessageAsRead(id, userId);
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/ticket/{ticketId}/mark-all-read")
-    public ResponseEntity<Void> markAllTicketMessagesAsRead(
+    public ResponseEntity<Map<String, Integer>> markAllTicketMessagesAsRead(
             @PathVariable Long ticketId,
             @RequestParam Long userId) {
-        messageService.markAllTicketMessagesAsRead(ticketId, userId);
-        return ResponseEntity.noContent().build();
+        int marked = messageService.markAllTicketMessagesAsRead(ticketId, userId);
+        return ResponseEntity.ok(Map.of("markedCount", marked));
+    }
+
+    @PatchMapping("/tickets/mark-all-read")
+    public ResponseEntity<Map<String, Integer>> markTicketsMessagesAsRead(
+            @RequestBody List<Long> ticketIds,
+            @RequestParam Long userId) {
+        int marked = messageService.markTicketsMessagesAsRead(ticketIds, userId);
+        return ResponseEntity.ok(Map.of("updatedTickets", marked));
+    }
+
+    @GetMapping("/unread-counts")
+    public ResponseEntity<Map<Long, Long>> getUnreadCountsByUser(@RequestParam Long userId) {
+        return ResponseEntity.ok(messageService.getUnreadCountsByUser(userId));
     }
 
     @GetMapping("/ticket/{ticketId}/unread-count")
@@ -2,11 +2,15 @@ package com.edutech.supportservice.controller;
 
 import com.edutech.supportservice.dto.TicketCategoryDTO;
 import com.edutech.supportservice.service.TicketCategoryService;
+import com.edutech.supportservice.util.ETagUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,30 +19,36 @@ import java.util.List;
 public class TicketCategoryController {
 
     private final TicketCategoryService categoryService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public TicketCategoryController(TicketCategoryService categoryService) {
+    public TicketCategoryController(TicketCategoryService categoryService, ObjectMapper objectMapper) {
         this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
     }
 
+    // Los ETags se calculan del mismo cuerpo que se devuelve: las categorías salen de la caché
+    // e incluyen su número de tickets, que una sonda de la base de datos no ve igual que la caché
     @GetMapping
-    public ResponseEntity<List<TicketCategoryDTO>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<TicketCategoryDTO>> getAllCategories(WebRequest request) throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getAllCategories());
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<TicketCategoryDTO>> getActiveCategories() {
-        return ResponseEntity.ok(categoryService.getActiveCategories());
+    public ResponseEntity<List<TicketCategoryDTO>> getActiveCategories(WebRequest request) throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getActiveCategories());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketCategoryDTO> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(id));
+    public ResponseEntity<TicketCategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request)
+            throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getCategoryById(id));
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<TicketCategoryDTO> getCategoryByName(@PathVariable String name) {
-        return ResponseEntity.ok(categoryService.getCategoryByName(name));
+    public ResponseEntity<TicketCategoryDTO> getCategoryByName(@PathVariable String name, WebRequest request)
+            throws JsonProcessingException {
+        return ETagUtil.conditionalOnBody(request, objectMapper, categoryService.getCategoryByName(name));
     }
 
     @PostMapping
@@ -1,16 +1,36 @@
 package com.edutech.supportservice.controller;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
+import com.edutech.supportservice.dto.TicketBatchResultDTO;
 import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.dto.TicketLatencyPercentilesDTO;
+import com.edutech.supportservice.dto.TicketSlaStatusDTO;
+import com.edutech.supportservice.dto.TicketStatsDTO;
+import com.edutech.supportservice.dto.TicketTimeseriesDTO;
+import com.edutech.supportservice.model.TicketLatencySketch;
 import com.edutech.supportservice.service.TicketService;
+import com.edutech.supportservice.service.sla.TicketSlaEngine;
+import com.edutech.supportservice.service.stats.TicketLatencySketches;
+import com.edutech.supportservice.service.stats.TicketTimeseriesService;
+import com.edutech.supportservice.service.stream.TicketEventBroadcaster;
+import com.edutech.supportservice.util.ETagUtil;
+import com.edutech.supportservice.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,20 +39,46 @@ import java.util.Map;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+    private final TicketEventBroadcaster ticketEventBroadcaster;
+    private final TicketTimeseriesService ticketTimeseriesService;
+    private final TicketLatencySketches ticketLatencySketches;
+    private final TicketSlaEngine ticketSlaEngine;
 
     @Autowired
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService,
+                            ObjectMapper objectMapper,
+                            TicketEventBroadcaster ticketEventBroadcaster,
+                            TicketTimeseriesService ticketTimeseriesService,
+                            TicketLatencySketches ticketLatencySketches,
+                            TicketSlaEngine ticketSlaEngine) {
         this.ticketService = ticketService;
+        this.objectMapper = objectMapper;
+        this.ticketEventBroadcaster = ticketEventBroadcaster;
+        this.ticketTimeseriesService = ticketTimeseriesService;
+        this.ticketLatencySketches = ticketLatencySketches;
+        this.ticketSlaEngine = ticketSlaEngine;
     }
 
     @GetMapping
-    public ResponseEntity<List<TicketDTO>> getAllTickets() {
-        return ResponseEntity.ok(ticketService.getAllTickets());
+    public ResponseEntity<List<TicketDTO>> getAllTickets(WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getAllTicketsETag(), ticketService::getAllTickets);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTickets() {
+        return ndjson(NdjsonWriter.body(objectMapper, ticketService::streamAllTickets));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketDTO> getTicketById(@PathVariable Long id) {
-        return ResponseEntity.ok(ticketService.getTicketById(id));
+    public ResponseEntity<TicketDTO> getTicketById(@PathVariable Long id, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketETag(id), () -> ticketService.getTicketById(id));
+    }
+
+    // Flujo SSE con los mensajes, cambios de estado y asignaciones del ticket a medida que se confirman
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicketEvents(@PathVariable Long id) {
+        return ticketEventBroadcaster.subscribe(id);
     }
 
     @PostMapping
@@ -40,35 +86,92 @@ public class TicketController {
         return new ResponseEntity<>(ticketService.createTicket(ticketDTO), HttpStatus.CREATED);
     }
 
+    // 201 si se crearon todos; 207 si alguno falló (el detalle va en cada resultado)
+    @PostMapping("/batch")
+    public ResponseEntity<TicketBatchResultDTO> createTicketsBatch(@RequestBody List<TicketDTO> tickets) {
+        TicketBatchResultDTO result = ticketService.createTickets(tickets);
+        return new ResponseEntity<>(result, result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
     @GetMapping("/paginated")
     public ResponseEntity<Page<TicketDTO>> getTicketsPaginated(
-            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
-        return ResponseEntity.ok(ticketService.getTicketsPaginated(pageable));
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable,
+            WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsPageETag(pageable),
+                () -> ticketService.getTicketsPaginated(pageable));
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageDTO<TicketDTO>> getTicketFeed(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ticketService.getTicketFeed(after, size));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(ticketService.getTicketsByUser(userId));
+    public ResponseEntity<List<TicketDTO>> getTicketsByUser(@PathVariable Long userId, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsByUserETag(userId),
+                () -> ticketService.getTicketsByUser(userId));
+    }
+
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTicketsByUser(@PathVariable Long userId) {
+        return ndjson(NdjsonWriter.<TicketDTO>body(objectMapper,
+                consumer -> ticketService.streamTicketsByUser(userId, consumer)));
     }
 
     @GetMapping("/assigned/{staffId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByAssignedTo(@PathVariable Long staffId) {
-        return ResponseEntity.ok(ticketService.getTicketsByAssignedTo(staffId));
+    public ResponseEntity<List<TicketDTO>> getTicketsByAssignedTo(@PathVariable Long staffId, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsByAssignedToETag(staffId),
+                () -> ticketService.getTicketsByAssignedTo(staffId));
+    }
+
+    @GetMapping(value = "/assigned/{staffId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTicketsByAssignedTo(@PathVariable Long staffId) {
+        return ndjson(NdjsonWriter.<TicketDTO>body(objectMapper,
+                consumer -> ticketService.streamTicketsByAssignedTo(staffId, consumer)));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(ticketService.getTicketsByStatus(status));
+    public ResponseEntity<List<TicketDTO>> getTicketsByStatus(@PathVariable String status, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsByStatusETag(status),
+                () -> ticketService.getTicketsByStatus(status));
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTicketsByStatus(@PathVariable String status) {
+        return ndjson(NdjsonWriter.<TicketDTO>body(objectMapper,
+                consumer -> ticketService.streamTicketsByStatus(status, consumer)));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(ticketService.getTicketsByCategory(categoryId));
+    public ResponseEntity<List<TicketDTO>> getTicketsByCategory(@PathVariable Long categoryId, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsByCategoryETag(categoryId),
+                () -> ticketService.getTicketsByCategory(categoryId));
+    }
+
+    @GetMapping(value = "/category/{categoryId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTicketsByCategory(@PathVariable Long categoryId) {
+        return ndjson(NdjsonWriter.<TicketDTO>body(objectMapper,
+                consumer -> ticketService.streamTicketsByCategory(categoryId, consumer)));
     }
 
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(ticketService.getTicketsByCourse(courseId));
+    public ResponseEntity<List<TicketDTO>> getTicketsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketsByCourseETag(courseId),
+                () -> ticketService.getTicketsByCourse(courseId));
+    }
+
+    @GetMapping(value = "/course/{courseId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTicketsByCourse(@PathVariable Long courseId) {
+        return ndjson(NdjsonWriter.<TicketDTO>body(objectMapper,
+                consumer -> ticketService.streamTicketsByCourse(courseId, consumer)));
+    }
+
+    // Tickets abiertos en riesgo de incumplir su plazo de resolución o que ya lo han superado, desde memoria
+    @GetMapping("/sla/at-risk")
+    public ResponseEntity<List<TicketSlaStatusDTO>> getTicketsAtRisk(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ticketSlaEngine.getAtRisk(limit));
     }
 
     @GetMapping("/search")
@@ -92,6 +195,13 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.assignTicket(id, staffId));
     }
 
+    @PatchMapping("/{id}/reassign/{staffId}")
+    public ResponseEntity<TicketDTO> reassignTicket(
+            @PathVariable Long id,
+            @PathVariable Long staffId) {
+        return ResponseEntity.ok(ticketService.reassignTicket(id, staffId));
+    }
+
     @PatchMapping("/{id}/status/{status}")
     public ResponseEntity<TicketDTO> changeTicketStatus(
             @PathVariable Long id,
@@ -120,6 +230,37 @@ public class TicketController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<TicketStatsDTO> getTicketStats(WebRequest request) {
+        return ETagUtil.conditional(request, ticketService.getTicketStatsETag(), ticketService::getTicketStats);
+    }
+
+    // Serie temporal servida desde las tablas de agregados por hora y por día
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<TicketTimeseriesDTO> getTicketTimeseries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(defaultValue = "none") String groupBy,
+            WebRequest request) {
+        return ETagUtil.conditional(request, ticketTimeseriesService.getTimeseriesETag(from, to, bucket, groupBy),
+                () -> ticketTimeseriesService.getTimeseries(from, to, bucket, groupBy));
+    }
+
+    @GetMapping("/stats/resolution-time/percentiles")
+    public ResponseEntity<TicketLatencyPercentilesDTO> getResolutionTimePercentiles(
+            @RequestParam(defaultValue = "none") String groupBy,
+            WebRequest request) {
+        return latencyPercentiles(TicketLatencySketch.METRIC_RESOLUTION, groupBy, request);
+    }
+
+    @GetMapping("/stats/first-response-time/percentiles")
+    public ResponseEntity<TicketLatencyPercentilesDTO> getFirstResponseTimePercentiles(
+            @RequestParam(defaultValue = "none") String groupBy,
+            WebRequest request) {
+        return latencyPercentiles(TicketLatencySketch.METRIC_FIRST_RESPONSE, groupBy, request);
+    }
+
     @GetMapping("/stats/status-counts")
     public ResponseEntity<Map<String, Integer>> getTicketStatusCounts() {
         return ResponseEntity.ok(ticketService.getTicketStatusCounts());
@@ -146,4 +287,15 @@ public class TicketController {
         Double avgRating = ticketService.getAverageSatisfactionRating();
         return ResponseEntity.ok(Map.of("averageSatisfactionRating", avgRating != null ? avgRating : 0));
     }
+
+    private ResponseEntity<TicketLatencyPercentilesDTO> latencyPercentiles(String metric, String groupBy, WebRequest request) {
+        String etag = ETagUtil.of("latency", metric, groupBy, ticketLatencySketches.getVersionTag());
+        return ETagUtil.conditional(request, etag, () -> ticketLatencySketches.getPercentiles(metric, groupBy));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
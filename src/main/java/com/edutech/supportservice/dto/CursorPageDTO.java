@@ -0,0 +1,26 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para una página de resultados paginada por cursor (sin conteo total)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items = new ArrayList<>();
+
+    private int size;
+
+    private boolean hasNext;
+
+    // Cursor a enviar en el parámetro "after" para obtener la siguiente página
+    private String nextCursor;
+}
@@ -37,4 +37,6 @@ public class FAQDTO {
     private Integer displayOrder;
 
     private Double helpfulRatio; // Porcentaje de votos útiles
+
+    private String highlight; // Fragmento resaltado con <mark> en resultados de búsqueda
 }
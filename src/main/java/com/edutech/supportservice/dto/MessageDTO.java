@@ -43,6 +43,4 @@ public class MessageDTO {
 
     @NotNull(message = "El ID del ticket es obligatorio")
     private Long ticketId;
-
-    private Boolean isRead;
 }
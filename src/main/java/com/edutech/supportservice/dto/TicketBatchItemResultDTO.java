@@ -0,0 +1,25 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de un ticket dentro de un lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchItemResultDTO {
+
+    // Posición del ticket en el lote recibido
+    private int index;
+
+    private String status; // CREADO, ERROR
+
+    // Ticket creado; null si falló
+    private TicketDTO ticket;
+
+    // Motivo del fallo; null si se creó
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado de una creación de tickets por lotes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchResultDTO {
+
+    private int received;
+
+    private int created;
+
+    private int failed;
+
+    // Un resultado por ticket recibido, en el mismo orden
+    private List<TicketBatchItemResultDTO> results = new ArrayList<>();
+}
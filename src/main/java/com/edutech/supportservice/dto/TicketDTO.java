@@ -75,4 +75,10 @@ public class TicketDTO {
     private Integer messageCount;
 
     private Integer unreadMessageCount;
+
+    // Fragmento resaltado con <mark> cuando el ticket proviene de una búsqueda
+    private String highlight;
+
+    // Versión de la entidad; si se envía en una actualización se valida contra la actual
+    private Long version;
 }
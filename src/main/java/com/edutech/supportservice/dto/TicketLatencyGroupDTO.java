@@ -0,0 +1,30 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Percentiles de un grupo, en minutos. La precisión es de dos cifras significativas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketLatencyGroupDTO {
+
+    // Prioridad o id de categoría; nulo sin agrupación o para tickets sin categoría
+    private String group;
+
+    // Nombre de la categoría cuando se agrupa por categoría
+    private String groupName;
+
+    private long count;
+
+    private double p50Minutes;
+
+    private double p90Minutes;
+
+    private double p99Minutes;
+
+    private double maxMinutes;
+}
@@ -0,0 +1,22 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Percentiles de una métrica de tiempos de tickets (resolución o primera respuesta)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketLatencyPercentilesDTO {
+
+    private String metric;
+
+    private String groupBy;
+
+    private List<TicketLatencyGroupDTO> groups;
+}
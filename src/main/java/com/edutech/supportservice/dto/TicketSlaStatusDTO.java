@@ -0,0 +1,32 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Plazo de resolución de un ticket abierto que está en riesgo o ya lo ha superado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSlaStatusDTO {
+
+    private Long ticketId;
+
+    private String priority;
+
+    private Long categoryId;
+
+    private LocalDateTime createdAt;
+
+    // createdAt + tiempo esperado de la categoría ajustado por la prioridad
+    private LocalDateTime deadline;
+
+    // Negativo si el plazo ya ha vencido
+    private long minutesRemaining;
+
+    private boolean breached;
+}
@@ -0,0 +1,37 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO con todas las estadísticas agregadas de tickets en una sola respuesta
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatsDTO {
+
+    private long totalTickets;
+
+    private Map<String, Long> statusCounts;
+
+    private Map<String, Long> priorityCounts;
+
+    private Map<String, Long> categoryCounts;
+
+    // Tickets cerrados con fecha de cierre, base de la media de resolución
+    private long closedTickets;
+
+    private Double averageResolutionTimeInDays;
+
+    private long ratedTickets;
+
+    private Double averageSatisfactionRating;
+
+    // Última conciliación de los contadores en memoria con la base de datos
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,31 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serie temporal de actividad de tickets calculada a partir de las tablas de agregados.
+ * Solo incluye los intervalos con actividad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketTimeseriesDTO {
+
+    private String bucket;
+
+    private String groupBy;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    // La actividad posterior todavía no está agregada
+    private LocalDateTime processedUntil;
+
+    private List<TicketTimeseriesPointDTO> points;
+}
@@ -0,0 +1,36 @@
+package com.edutech.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Actividad de tickets en un intervalo, opcionalmente para un grupo (prioridad, categoría o curso)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketTimeseriesPointDTO {
+
+    private LocalDateTime bucketStart;
+
+    // Prioridad, id de categoría o id de curso; nulo sin agrupación o para tickets sin categoría/curso
+    private String group;
+
+    // Nombre de la categoría cuando se agrupa por categoría
+    private String groupName;
+
+    private long createdTickets;
+
+    // Tickets cuya fecha de cierre cae en el intervalo
+    private long closedTickets;
+
+    private Double averageResolutionTimeInDays;
+
+    // Calificaciones recibidas en el intervalo
+    private long ratedTickets;
+
+    private Double averageSatisfactionRating;
+}
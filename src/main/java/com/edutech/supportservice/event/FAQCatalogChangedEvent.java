@@ -0,0 +1,24 @@
+package com.edutech.supportservice.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Se publica cuando cambia algún dato que forma parte del catálogo público de FAQs:
+ * alta, edición, publicación o borrado de una FAQ, cambios de categoría, o el volcado
+ * periódico de visitas y votos ({@code countersOnly}, con las FAQs cuyos contadores han cambiado).
+ */
+@Value
+public class FAQCatalogChangedEvent {
+    boolean countersOnly;
+    Set<Long> faqIds;
+
+    public static FAQCatalogChangedEvent content() {
+        return new FAQCatalogChangedEvent(false, Set.of());
+    }
+
+    public static FAQCatalogChangedEvent counters(Set<Long> faqIds) {
+        return new FAQCatalogChangedEvent(true, faqIds);
+    }
+}
@@ -0,0 +1,42 @@
+package com.edutech.supportservice.event;
+
+import com.edutech.supportservice.dto.MessageDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Actividad de un ticket que se envía a los clientes suscritos a su flujo de eventos:
+ * un mensaje nuevo, un cambio de estado o una asignación. Se publica dentro de la
+ * transacción y se reparte solo cuando esta se confirma.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketActivityEvent {
+
+    public enum Type {
+        MESSAGE,
+        STATUS_CHANGED,
+        ASSIGNED
+    }
+
+    Long ticketId;
+    Type type;
+    String status;
+    Long assignedToId;
+    MessageDTO message;
+    LocalDateTime occurredAt;
+
+    public static TicketActivityEvent message(MessageDTO message) {
+        return new TicketActivityEvent(message.getTicketId(), Type.MESSAGE, null, null, message, message.getCreatedAt());
+    }
+
+    public static TicketActivityEvent statusChanged(Long ticketId, String status) {
+        return new TicketActivityEvent(ticketId, Type.STATUS_CHANGED, status, null, null, LocalDateTime.now());
+    }
+
+    public static TicketActivityEvent assigned(Long ticketId, Long assignedToId, String status) {
+        return new TicketActivityEvent(ticketId, Type.ASSIGNED, status, assignedToId, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,13 @@
+package com.edutech.supportservice.event;
+
+import lombok.Value;
+
+/**
+ * Se publica al cambiar el nombre de una categoría de tickets, para que las estadísticas
+ * agrupadas por nombre trasladen su conteo sin recalcularse.
+ */
+@Value
+public class TicketCategoryRenamedEvent {
+    String oldName;
+    String newName;
+}
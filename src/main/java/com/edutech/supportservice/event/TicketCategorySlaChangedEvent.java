@@ -0,0 +1,13 @@
+package com.edutech.supportservice.event;
+
+import lombok.Value;
+
+/**
+ * Se publica al cambiar el tiempo de resolución esperado de una categoría, para que el
+ * seguimiento del SLA recalcule los plazos de sus tickets abiertos.
+ */
+@Value
+public class TicketCategorySlaChangedEvent {
+    Long categoryId;
+    Integer expectedResolutionTimeHours;
+}
@@ -0,0 +1,18 @@
+package com.edutech.supportservice.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Primera respuesta del personal de soporte a un ticket, tras el primer mensaje del usuario.
+ * Se aplica a los percentiles de tiempo de respuesta solo cuando la transacción se confirma.
+ */
+@Value
+public class TicketFirstResponseEvent {
+    Long ticketId;
+    String priority;
+    Long categoryId;
+    LocalDateTime firstUserMessageAt;
+    LocalDateTime respondedAt;
+}
@@ -0,0 +1,24 @@
+package com.edutech.supportservice.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un ticket abierto ha entrado en la ventana de riesgo de su plazo de resolución
+ * o lo ha superado. Lo publica TicketSlaEngine al vencer el temporizador.
+ */
+@Value
+public class TicketSlaEvent {
+
+    public enum Type {
+        NEAR_BREACH,
+        BREACH
+    }
+
+    Type type;
+    Long ticketId;
+    String priority;
+    Long categoryId;
+    LocalDateTime deadline;
+}
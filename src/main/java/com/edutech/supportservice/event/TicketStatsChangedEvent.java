@@ -0,0 +1,67 @@
+package com.edutech.supportservice.event;
+
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.model.Ticket;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio en los datos de un ticket que alimentan las estadísticas agregadas. Lleva el estado
+ * del ticket antes y después de la operación: {@code before} es nulo al crearlo y
+ * {@code after} al borrarlo. Se aplica a las estadísticas solo cuando la transacción se confirma.
+ */
+@Value
+public class TicketStatsChangedEvent {
+    Snapshot before;
+    Snapshot after;
+
+    public static TicketStatsChangedEvent created(Snapshot after) {
+        return new TicketStatsChangedEvent(null, after);
+    }
+
+    public static TicketStatsChangedEvent changed(Snapshot before, Snapshot after) {
+        return new TicketStatsChangedEvent(before, after);
+    }
+
+    public static TicketStatsChangedEvent deleted(Snapshot before) {
+        return new TicketStatsChangedEvent(before, null);
+    }
+
+    /**
+     * Campos de un ticket que intervienen en las estadísticas y en el seguimiento del SLA
+     */
+    @Value
+    public static class Snapshot {
+        Long ticketId;
+        // Versión del ticket tras la operación; la conciliación la compara con la que leyó de la base de datos
+        Long version;
+        String status;
+        String priority;
+        String categoryName;
+        Long categoryId;
+        LocalDateTime createdAt;
+        LocalDateTime closedAt;
+        Integer satisfactionRating;
+
+        public static Snapshot of(Ticket ticket) {
+            return new Snapshot(ticket.getId(), ticket.getVersion(), ticket.getStatus(), ticket.getPriority(),
+                    ticket.getCategory() != null ? ticket.getCategory().getName() : null,
+                    ticket.getCategory() != null ? ticket.getCategory().getId() : null,
+                    ticket.getCreatedAt(), ticket.getClosedAt(), ticket.getSatisfactionRating());
+        }
+
+        public static Snapshot of(TicketDTO ticket) {
+            return new Snapshot(ticket.getId(), ticket.getVersion(), ticket.getStatus(), ticket.getPriority(),
+                    ticket.getCategoryName(), ticket.getCategoryId(), ticket.getCreatedAt(), ticket.getClosedAt(), ticket.getSatisfactionRating());
+        }
+
+        public Snapshot withStatus(String status) {
+            return new Snapshot(ticketId, version, status, priority, categoryName, categoryId, createdAt, closedAt, satisfactionRating);
+        }
+
+        public Snapshot withVersion(Long version) {
+            return new Snapshot(ticketId, version, status, priority, categoryName, categoryId, createdAt, closedAt, satisfactionRating);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.edutech.supportservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Una asignación de ticket no se aplicó porque otro agente lo tiene asignado.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TicketTransitionConflictException extends RuntimeException {
+
+    public TicketTransitionConflictException(String message) {
+        super(message);
+    }
+}
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 public class FAQ {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("faqs")
     private Long id;
 
     @NotBlank(message = "La pregunta es obligatoria")
@@ -48,6 +48,11 @@ public class FAQ {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Versión de la fila: cambia con cada actualización de la entidad y forma parte del ETag
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(nullable = false)
     private Boolean published = false;
 
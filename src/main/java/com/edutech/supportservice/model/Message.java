@@ -7,16 +7,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_ticket_created_at_id", columnList = "ticket_id, created_at, id"),
+        @Index(name = "idx_messages_ticket_id_id", columnList = "ticket_id, id")
+})
 public class Message {
 
+    // Secuencia de incremento 1 y sin bloques por instancia: el cursor de lectura (ticket_read_cursor)
+    // da por no leídos los mensajes con id mayor, así que los ids deben crecer en el orden de creación
+    // también con varias instancias. Los INSERT se siguen agrupando en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 1)
     private Long id;
 
     @NotBlank(message = "El contenido del mensaje es obligatorio")
@@ -51,11 +59,11 @@ public class Message {
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
 
-    @Column(name = "is_read")
-    private Boolean isRead = false;
-
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Con la precisión de la columna, para que el valor en memoria sea el mismo que el guardado
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.edutech.supportservice.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id generado con la secuencia {@code <value>_seq} (guiones como guiones bajos) y el optimizador pooled-lo.
+ * El tamaño de bloque se configura con {@code app.ids.allocation-size.<value>}
+ * o, si no existe, con {@code app.ids.allocation-size.default}.
+ * <p>
+ * Cada instancia reparte ids de su propio bloque, así que un id mayor no implica una fila posterior.
+ * No sirve para entidades cuyo id se compara para saber qué es nuevo, como {@link Message}
+ * (el cursor de lectura da por no leídos los mensajes con id mayor).
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    String value();
+}
@@ -0,0 +1,52 @@
+package com.edutech.supportservice.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Generador de {@link PooledSequence}: una {@link SequenceStyleGenerator} cuyo tamaño de bloque
+ * se lee de la configuración de Hibernate en lugar de fijarse en la anotación.
+ * Las claves {@code app.ids.allocation-size.*} las copia {@code IdGenerationConfig}.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_PREFIX = "app.ids.allocation-size.";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String name;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.name = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        parameters.setProperty(SEQUENCE_PARAM, name.replace('-', '_') + "_seq");
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(settings)));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    private int allocationSize(Map<String, Object> settings) {
+        Object size = settings.get(ALLOCATION_SIZE_PREFIX + name);
+        if (size == null) {
+            size = settings.get(ALLOCATION_SIZE_PREFIX + "default");
+        }
+        if (size == null) {
+            return DEFAULT_ALLOCATION_SIZE;
+        }
+        int allocationSize = Integer.parseInt(size.toString().trim());
+        if (allocationSize < 1) {
+            throw new MappingException("El tamaño de bloque de la secuencia " + name + " debe ser al menos 1");
+        }
+        return allocationSize;
+    }
+}
@@ -0,0 +1,33 @@
+package com.edutech.supportservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hasta dónde se han procesado los tickets en las tablas de agregados por intervalo.
+ * Cada pasada la lee bloqueada, lo que impide que dos instancias procesen el mismo tramo a la vez
+ * y que una recalificación se cruce con la pasada que la agrega.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // Los eventos con fecha posterior aún no están en los agregados
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
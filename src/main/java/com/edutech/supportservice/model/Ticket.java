@@ -15,11 +15,17 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_last_activity_at", columnList = "last_activity_at"),
+        @Index(name = "idx_tickets_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_tickets_closed_at", columnList = "closed_at"),
+        @Index(name = "idx_tickets_rated_at", columnList = "rated_at")
+})
 public class Ticket {
 
+    // Secuencia con asignación por bloques para que Hibernate pueda agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("tickets")
     private Long id;
 
     @NotBlank(message = "El título del ticket es obligatorio")
@@ -74,16 +80,51 @@ public class Ticket {
     @OrderBy("created_at ASC")
     private List<Message> messages = new ArrayList<>();
 
+    // Bloqueo optimista para las actualizaciones completas de la entidad
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "satisfaction_rating")
     private Integer satisfactionRating;  // 1-5 estrellas
 
+    // Momento de la primera calificación, para los agregados por intervalo (recalificar no lo mueve)
+    @Column(name = "rated_at")
+    private LocalDateTime ratedAt;
+
     @Column(name = "feedback")
     private String feedback;
 
+    // Contadores desnormalizados: solo se modifican con UPDATE atómicos desde TicketRepository
+    @Column(name = "message_count", updatable = false)
+    private Integer messageCount = 0;
+
+    @Column(name = "first_user_message_at", updatable = false)
+    private LocalDateTime firstUserMessageAt;
+
+    @Column(name = "first_staff_response_at", updatable = false)
+    private LocalDateTime firstStaffResponseAt;
+
+    @Column(name = "last_activity_at", updatable = false)
+    private LocalDateTime lastActivityAt;
+
+    // Plazo cuyo aviso de SLA (riesgo e incumplimiento) ya se emitió; solo lo fija TicketRepository
+    @Column(name = "sla_warned_deadline", updatable = false)
+    private LocalDateTime slaWarnedDeadline;
+
+    @Column(name = "sla_breached_deadline", updatable = false)
+    private LocalDateTime slaBreachedDeadline;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        // La ingesta por lotes fija la fecha antes de persistir para compartirla con el mensaje inicial
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updatedAt = createdAt;
+        if (lastActivityAt == null) {
+            lastActivityAt = createdAt;
+        }
         if (status == null) {
             status = "NUEVO";
         }
@@ -19,7 +19,7 @@ import java.util.List;
 public class TicketCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("ticket-categories")
     private Long id;
 
     @NotBlank(message = "El nombre de la categoría es obligatorio")
@@ -39,6 +39,11 @@ public class TicketCategory {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Versión de la fila: cambia con cada actualización de la entidad y forma parte del ETag
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "category")
     private List<Ticket> tickets = new ArrayList<>();
 
@@ -0,0 +1,20 @@
+package com.edutech.supportservice.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "ticket_rollups_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ticket_rollups_daily_bucket", columnNames = {"dimension", "bucket_start", "dimension_value"})
+})
+public class TicketDailyRollup extends TicketRollup {
+
+    public TicketDailyRollup(LocalDateTime bucketStart, String dimension, String dimensionValue) {
+        super(bucketStart, dimension, dimensionValue);
+    }
+}
@@ -0,0 +1,58 @@
+package com.edutech.supportservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Histograma HdrHistogram comprimido con los tiempos (en segundos) de una métrica de tickets
+ * para una dimensión (TOTAL, PRIORITY o CATEGORY) y un valor de esa dimensión.
+ * Cada instancia suma sus muestras nuevas al histograma guardado; la versión evita pisar
+ * las de otra instancia.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "ticket_latency_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ticket_latency_sketches_key", columnNames = {"metric", "dimension", "dimension_value"})
+})
+public class TicketLatencySketch {
+
+    public static final String METRIC_RESOLUTION = "RESOLUTION";
+    public static final String METRIC_FIRST_RESPONSE = "FIRST_RESPONSE";
+
+    @Id
+    @PooledSequence("ticket-latency-sketches")
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String metric;
+
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    // Vacío para TOTAL y para tickets sin categoría
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+
+    @Column(name = "histogram", nullable = false, length = 1048576)
+    private byte[] histogram;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public TicketLatencySketch(String metric, String dimension, String dimensionValue) {
+        this.metric = metric;
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+    }
+}
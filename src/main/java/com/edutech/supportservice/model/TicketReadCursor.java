@@ -0,0 +1,46 @@
+package com.edutech.supportservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Último mensaje leído por cada participante de un ticket. Los mensajes con id mayor
+ * que el cursor se consideran no leídos para ese usuario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(TicketReadCursor.Key.class)
+@Table(name = "ticket_read_cursor", indexes = {
+        @Index(name = "idx_ticket_read_cursor_user_id", columnList = "user_id")
+})
+public class TicketReadCursor {
+
+    @Id
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ticketId;
+        private Long userId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.edutech.supportservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregados de actividad de tickets en un intervalo de tiempo para una dimensión
+ * (TOTAL, PRIORITY, CATEGORY o COURSE) y un valor de esa dimensión.
+ * Las rellena TicketRollupJob a partir de los tickets nuevos; después solo cambia rating_sum,
+ * cuando se recalifica un ticket ya agregado.
+ */
+@Data
+@NoArgsConstructor
+@MappedSuperclass
+public abstract class TicketRollup {
+
+    public static final String DIMENSION_TOTAL = "TOTAL";
+    public static final String DIMENSION_PRIORITY = "PRIORITY";
+    public static final String DIMENSION_CATEGORY = "CATEGORY";
+    public static final String DIMENSION_COURSE = "COURSE";
+
+    @Id
+    @PooledSequence("ticket-rollups")
+    private Long id;
+
+    // Inicio del intervalo (hora o día truncados)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    // Vacío para TOTAL y para tickets sin categoría o sin curso
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "closed_count", nullable = false)
+    private long closedCount;
+
+    // Suma de (closed_at - created_at) de los tickets cerrados en el intervalo
+    @Column(name = "resolution_seconds", nullable = false)
+    private double resolutionSeconds;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    protected TicketRollup(LocalDateTime bucketStart, String dimension, String dimensionValue) {
+        this.bucketStart = bucketStart;
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+    }
+}
@@ -0,0 +1,12 @@
+package com.edutech.supportservice.repository;
+
+/**
+ * Número de filas y suma de una columna, para reconstruir medias de forma incremental
+ */
+public interface AggregateTotals {
+
+    Number getCount();
+
+    // Nulo si no hay filas
+    Number getTotal();
+}
@@ -0,0 +1,20 @@
+package com.edutech.supportservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen barato de un conjunto de filas para calcular ETags sin cargar las entidades:
+ * cualquier alta, baja o modificación cambia al menos uno de los valores.
+ */
+public interface ChangeProbe {
+
+    Long getCount();
+
+    LocalDateTime getLastUpdated();
+
+    // Suma de las versiones de las filas (y de las categorías que aparecen en la respuesta)
+    Long getVersionSum();
+
+    // Suma de los contadores que cambian sin pasar por la entidad (mensajes, visitas, votos)
+    Long getActivitySum();
+}
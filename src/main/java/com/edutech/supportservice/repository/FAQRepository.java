@@ -1,28 +1,48 @@
 package com.edutech.supportservice.repository;
 
 import com.edutech.supportservice.model.FAQ;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FAQRepository extends JpaRepository<FAQ, Long> {
 
     List<FAQ> findByPublishedTrue();
 
+    // Consulta en streaming para exportaciones NDJSON: debe consumirse dentro de una transacción
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM FAQ f LEFT JOIN FETCH f.category")
+    Stream<FAQ> streamAll();
+
+    @EntityGraph(attributePaths = "category")
     List<FAQ> findByPublishedTrueOrderByDisplayOrderAsc();
 
     List<FAQ> findByCategoryId(Long categoryId);
 
     List<FAQ> findByCategoryIdAndPublishedTrue(Long categoryId);
 
-    @Query("SELECT f FROM FAQ f WHERE f.published = true AND (LOWER(f.question) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(f.answer) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(f.searchKeywords) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<FAQ> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    // Sonda de cambios para el ETag del listado. Los contadores se escriben con UPDATE masivo sin tocar la versión,
+    // por eso se suman aparte.
+    String CHANGE_PROBE = "SELECT COUNT(f) AS count, MAX(f.updatedAt) AS lastUpdated, " +
+            "SUM(f.version + COALESCE(c.version, 0)) AS versionSum, " +
+            "SUM(COALESCE(f.viewCount, 0) + COALESCE(f.helpfulVotes, 0) + COALESCE(f.unhelpfulVotes, 0)) AS activitySum " +
+            "FROM FAQ f LEFT JOIN f.category c";
+
+    @Query(CHANGE_PROBE)
+    ChangeProbe probeAll();
 
     @Query("SELECT f FROM FAQ f WHERE f.viewCount > :minViews ORDER BY f.viewCount DESC")
     List<FAQ> findMostViewedFAQs(@Param("minViews") Integer minViews, Pageable pageable);
@@ -3,11 +3,14 @@ package com.edutech.supportservice.repository;
 import com.edutech.supportservice.model.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,15 +24,34 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     List<Message> findBySenderId(Long senderId);
 
+    // Paginación por clave (created_at, id) en orden cronológico y sin COUNT
+    @Query("SELECT m FROM Message m WHERE m.ticket.id = :ticketId ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findFeedByTicketId(@Param("ticketId") Long ticketId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.ticket.id = :ticketId AND (m.createdAt, m.id) > (:createdAt, :id) ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findFeedByTicketIdAfter(@Param("ticketId") Long ticketId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
     @Query("SELECT m FROM Message m WHERE m.ticket.id = :ticketId AND m.isInternalNote = true")
     List<Message> findInternalNotesByTicketId(@Param("ticketId") Long ticketId);
 
-    @Query("SELECT m FROM Message m WHERE m.ticket.id = :ticketId AND m.isRead = false AND m.senderId != :userId")
-    List<Message> findUnreadMessagesByTicketForUser(@Param("ticketId") Long ticketId, @Param("userId") Long userId);
+    // Conteo por rango sobre (ticket_id, id) a partir del cursor de lectura del usuario
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.ticket.id = :ticketId AND m.senderId <> :userId " +
+           "AND m.id > COALESCE((SELECT c.lastReadMessageId FROM TicketReadCursor c " +
+           "WHERE c.ticketId = :ticketId AND c.userId = :userId), 0)")
+    long countUnreadByTicketForUser(@Param("ticketId") Long ticketId, @Param("userId") Long userId);
+
+    @Query("SELECT m.ticket.id, MAX(m.id) FROM Message m WHERE m.ticket.id IN :ticketIds GROUP BY m.ticket.id")
+    List<Object[]> findLatestMessageIdsByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.ticket.id = :ticketId")
+    Long findLatestMessageId(@Param("ticketId") Long ticketId);
 
     @Query("SELECT COUNT(m) FROM Message m WHERE m.isInternalNote = false")
     Integer countPublicMessages();
 
-    @Query("SELECT AVG(SIZE(t.messages)) FROM Ticket t")
+    @Query("SELECT AVG(t.messageCount) FROM Ticket t")
     Double getAverageMessagesPerTicket();
 }
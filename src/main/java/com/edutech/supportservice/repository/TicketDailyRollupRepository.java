@@ -0,0 +1,8 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.TicketDailyRollup;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TicketDailyRollupRepository extends TicketRollupRepository<TicketDailyRollup> {
+}
@@ -0,0 +1,8 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.TicketHourlyRollup;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TicketHourlyRollupRepository extends TicketRollupRepository<TicketHourlyRollup> {
+}
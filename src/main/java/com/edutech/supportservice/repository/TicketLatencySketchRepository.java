@@ -0,0 +1,18 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.TicketLatencySketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TicketLatencySketchRepository extends JpaRepository<TicketLatencySketch, Long> {
+
+    Optional<TicketLatencySketch> findByMetricAndDimensionAndDimensionValue(String metric, String dimension, String dimensionValue);
+
+    // Histogramas que otra instancia ha modificado desde la última sincronización
+    List<TicketLatencySketch> findByUpdatedAtAfter(LocalDateTime updatedAt);
+}
@@ -0,0 +1,39 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.TicketReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TicketReadCursorRepository extends JpaRepository<TicketReadCursor, TicketReadCursor.Key>,
+        TicketReadCursorRepositoryCustom {
+
+    // Avanza el cursor hasta el mensaje indicado (nunca lo retrocede) con un único upsert
+    @Modifying
+    @Query("INSERT INTO TicketReadCursor (ticketId, userId, lastReadMessageId, updatedAt) " +
+           "VALUES (:ticketId, :userId, :messageId, :now) " +
+           "ON CONFLICT (ticketId, userId) DO UPDATE " +
+           "SET lastReadMessageId = GREATEST(lastReadMessageId, excluded.lastReadMessageId), updatedAt = excluded.updatedAt")
+    int advance(@Param("ticketId") Long ticketId,
+                @Param("userId") Long userId,
+                @Param("messageId") Long messageId,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM TicketReadCursor c WHERE c.ticketId = :ticketId")
+    int deleteByTicketId(@Param("ticketId") Long ticketId);
+
+    // Mensajes no leídos de todos los tickets del usuario (como creador o como agente asignado)
+    @Query("SELECT t.id, COUNT(m.id) FROM Ticket t " +
+           "LEFT JOIN TicketReadCursor c ON c.ticketId = t.id AND c.userId = :userId " +
+           "LEFT JOIN Message m ON m.ticket = t AND m.senderId <> :userId AND m.id > COALESCE(c.lastReadMessageId, 0) " +
+           "WHERE t.userId = :userId OR t.assignedToId = :userId " +
+           "GROUP BY t.id")
+    List<Object[]> countUnreadByUser(@Param("userId") Long userId);
+}
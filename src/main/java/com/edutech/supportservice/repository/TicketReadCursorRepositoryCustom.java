@@ -0,0 +1,13 @@
+package com.edutech.supportservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface TicketReadCursorRepositoryCustom {
+
+    /**
+     * Avanza en una sola sentencia los cursores de varios tickets (ticketId -> último mensaje leído)
+     * para un mismo usuario. Devuelve el número de cursores insertados o actualizados.
+     */
+    int advanceAll(Map<Long, Long> lastMessageIdByTicket, Long userId, LocalDateTime now);
+}
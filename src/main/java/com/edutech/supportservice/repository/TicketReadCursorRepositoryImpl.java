@@ -0,0 +1,45 @@
+package com.edutech.supportservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class TicketReadCursorRepositoryImpl implements TicketReadCursorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int advanceAll(Map<Long, Long> lastMessageIdByTicket, Long userId, LocalDateTime now) {
+        if (lastMessageIdByTicket.isEmpty()) {
+            return 0;
+        }
+
+        // Hibernate no admite ON CONFLICT sobre INSERT ... SELECT, así que se genera un VALUES con una fila por ticket
+        StringBuilder hql = new StringBuilder(
+                "INSERT INTO TicketReadCursor (ticketId, userId, lastReadMessageId, updatedAt) VALUES ");
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(lastMessageIdByTicket.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                hql.append(", ");
+            }
+            hql.append("(:t").append(i).append(", :userId, :m").append(i).append(", :now)");
+        }
+        hql.append(" ON CONFLICT (ticketId, userId) DO UPDATE ")
+           .append("SET lastReadMessageId = GREATEST(lastReadMessageId, excluded.lastReadMessageId), updatedAt = excluded.updatedAt");
+
+        Query query = entityManager.createQuery(hql.toString());
+        for (int i = 0; i < entries.size(); i++) {
+            query.setParameter("t" + i, entries.get(i).getKey());
+            query.setParameter("m" + i, entries.get(i).getValue());
+        }
+        query.setParameter("userId", userId);
+        query.setParameter("now", now);
+        return query.executeUpdate();
+    }
+}
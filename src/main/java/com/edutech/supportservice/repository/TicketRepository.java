@@ -1,56 +1,315 @@
 package com.edutech.supportservice.repository;
 
 import com.edutech.supportservice.model.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
 
+    // Los listados cargan la categoría en la misma consulta para evitar un SELECT adicional por categoría
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Ticket> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Ticket> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
     List<Ticket> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "category")
     Page<Ticket> findByUserId(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     List<Ticket> findByAssignedToId(Long staffId);
 
+    @EntityGraph(attributePaths = "category")
     Page<Ticket> findByAssignedToId(Long staffId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     List<Ticket> findByStatus(String status);
 
+    @EntityGraph(attributePaths = "category")
     Page<Ticket> findByStatus(String status, Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     List<Ticket> findByCategoryId(Long categoryId);
 
+    @EntityGraph(attributePaths = "category")
     Page<Ticket> findByCategoryId(Long categoryId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT t FROM Ticket t WHERE t.courseId = :courseId")
     List<Ticket> findByCourseId(@Param("courseId") Long courseId);
 
-    @Query("SELECT t FROM Ticket t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Ticket> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    // Carga los tickets de una página de resultados de búsqueda
+    @EntityGraph(attributePaths = "category")
+    List<Ticket> findByIdIn(Collection<Long> ids);
+
+    // Consultas en streaming para exportaciones NDJSON: deben consumirse dentro de una transacción
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category")
+    Stream<Ticket> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.userId = :userId")
+    Stream<Ticket> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.assignedToId = :staffId")
+    Stream<Ticket> streamByAssignedToId(@Param("staffId") Long staffId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.status = :status")
+    Stream<Ticket> streamByStatus(@Param("status") String status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.category.id = :categoryId")
+    Stream<Ticket> streamByCategoryId(@Param("categoryId") Long categoryId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.courseId = :courseId")
+    Stream<Ticket> streamByCourseId(@Param("courseId") Long courseId);
+
+    // Paginación por clave (created_at, id), del más reciente al más antiguo y sin COUNT
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT t FROM Ticket t ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Ticket> findFeed(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT t FROM Ticket t WHERE (t.createdAt, t.id) < (:createdAt, :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Ticket> findFeedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // Sondas de cambios para ETags: agregados sobre índices, sin cargar ni mapear tickets.
+    // La versión de la categoría entra en la suma porque su nombre forma parte de la respuesta.
+    String CHANGE_PROBE = "SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastUpdated, " +
+            "SUM(t.version + COALESCE(c.version, 0)) AS versionSum, SUM(COALESCE(t.messageCount, 0)) AS activitySum " +
+            "FROM Ticket t LEFT JOIN t.category c";
+
+    @Query(CHANGE_PROBE)
+    ChangeProbe probeAll();
+
+    @Query(CHANGE_PROBE + " WHERE t.id = :id")
+    ChangeProbe probeById(@Param("id") Long id);
+
+    // Página de GET /paginated: solo sus filas, localizadas con la misma ordenación que findAll(Pageable)
+    @Query(CHANGE_PROBE + " WHERE t.id IN :ids")
+    ChangeProbe probeByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Ticket t")
+    Slice<Long> findPageIds(Pageable pageable);
+
+    @Query(CHANGE_PROBE + " WHERE t.userId = :userId")
+    ChangeProbe probeByUserId(@Param("userId") Long userId);
+
+    @Query(CHANGE_PROBE + " WHERE t.assignedToId = :staffId")
+    ChangeProbe probeByAssignedToId(@Param("staffId") Long staffId);
+
+    @Query(CHANGE_PROBE + " WHERE t.status = :status")
+    ChangeProbe probeByStatus(@Param("status") String status);
+
+    @Query(CHANGE_PROBE + " WHERE c.id = :categoryId")
+    ChangeProbe probeByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(CHANGE_PROBE + " WHERE t.courseId = :courseId")
+    ChangeProbe probeByCourseId(@Param("courseId") Long courseId);
 
-    @Query(value = "SELECT AVG(EXTRACT(epoch FROM (closed_at - created_at))/86400.0) FROM tickets WHERE status = 'CERRADO' AND closed_at IS NOT NULL", nativeQuery = true)
-    Double getAverageResolutionTimeInDays();
+    // Transiciones de estado en una sola sentencia condicional; devuelven el número de filas afectadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.assignedToId = :staffId, " +
+           "t.status = CASE WHEN t.status = 'NUEVO' THEN 'ASIGNADO' ELSE t.status END, " +
+           "t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND (t.assignedToId IS NULL OR t.assignedToId = :staffId)")
+    int assignIfUnassigned(@Param("id") Long id,
+                           @Param("staffId") Long staffId,
+                           @Param("now") LocalDateTime now);
+
+    // Cambio de agente explícito: no exige que el ticket esté libre
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.assignedToId = :staffId, " +
+           "t.status = CASE WHEN t.status = 'NUEVO' THEN 'ASIGNADO' ELSE t.status END, " +
+           "t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.id = :id")
+    int reassign(@Param("id") Long id,
+                 @Param("staffId") Long staffId,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :status, t.closedAt = COALESCE(t.closedAt, :closedAt), " +
+           "t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") String status,
+                     @Param("closedAt") LocalDateTime closedAt,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.priority = :priority, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id")
+    int updatePriority(@Param("id") Long id,
+                       @Param("priority") String priority,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = 'EN_PROGRESO', t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.status = 'ASIGNADO'")
+    int startProgressIfAssigned(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Actualiza los contadores desnormalizados al registrar un mensaje, sin leer la fila.
+    // Las filas aún no rellenadas (message_count NULL) se dejan para TicketCountersBackfill.
+    // Las notas internas no las ve el usuario, así que no cuentan como primera respuesta.
+    @Modifying
+    @Query("UPDATE Ticket t SET t.messageCount = t.messageCount + 1, t.lastActivityAt = :sentAt, " +
+           "t.firstUserMessageAt = CASE WHEN t.firstUserMessageAt IS NULL AND :senderType = 'USUARIO' THEN :sentAt ELSE t.firstUserMessageAt END, " +
+           "t.firstStaffResponseAt = CASE WHEN t.firstStaffResponseAt IS NULL AND t.firstUserMessageAt IS NOT NULL AND :senderType = 'SOPORTE' AND :internalNote = false THEN :sentAt ELSE t.firstStaffResponseAt END " +
+           "WHERE t.id = :ticketId")
+    int registerMessage(@Param("ticketId") Long ticketId,
+                        @Param("senderType") String senderType,
+                        @Param("internalNote") boolean internalNote,
+                        @Param("sentAt") LocalDateTime sentAt);
+
+    // Devuelve el primer mensaje del usuario solo si registerMessage acaba de fijar :sentAt como primera respuesta
+    @Query("SELECT t.firstUserMessageAt FROM Ticket t WHERE t.id = :ticketId AND t.firstStaffResponseAt = :sentAt")
+    Optional<LocalDateTime> findFirstUserMessageAtIfFirstResponse(@Param("ticketId") Long ticketId,
+                                                                 @Param("sentAt") LocalDateTime sentAt);
+
+    // Recalcula los contadores de un lote de tickets que todavía no los tienen
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tickets t SET " +
+           "message_count = (SELECT COUNT(*) FROM messages m WHERE m.ticket_id = t.id), " +
+           "first_user_message_at = (SELECT MIN(m.created_at) FROM messages m WHERE m.ticket_id = t.id AND m.sender_type = 'USUARIO'), " +
+           "first_staff_response_at = (SELECT MIN(s.created_at) FROM messages s WHERE s.ticket_id = t.id AND s.sender_type = 'SOPORTE' " +
+           "AND s.is_internal_note IS NOT TRUE " +
+           "AND s.created_at >= (SELECT MIN(u.created_at) FROM messages u WHERE u.ticket_id = t.id AND u.sender_type = 'USUARIO')), " +
+           "last_activity_at = COALESCE((SELECT MAX(m.created_at) FROM messages m WHERE m.ticket_id = t.id), t.created_at) " +
+           "WHERE t.id IN (SELECT id FROM tickets WHERE message_count IS NULL ORDER BY id LIMIT :batchSize)", nativeQuery = true)
+    int backfillMessageCounters(@Param("batchSize") int batchSize);
 
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.createdAt >= :startDate")
     Integer countTicketsCreatedSince(@Param("startDate") LocalDateTime startDate);
 
+    // Eventos de un tramo (from, to] para los agregados por intervalo; cada consulta usa el índice de su fecha.
+    // Columnas: fecha del evento, prioridad, id de categoría, id de curso y el dato propio del evento
+    @Query("SELECT t.createdAt, t.priority, c.id, t.courseId FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.createdAt > :from AND t.createdAt <= :to")
+    List<Object[]> findCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.closedAt, t.priority, c.id, t.courseId, t.createdAt FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.closedAt > :from AND t.closedAt <= :to")
+    List<Object[]> findClosedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.ratedAt, t.priority, c.id, t.courseId, t.satisfactionRating FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.ratedAt > :from AND t.ratedAt <= :to AND t.satisfactionRating IS NOT NULL")
+    List<Object[]> findRatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Muestras históricas para la construcción inicial de los percentiles (TicketLatencySketches)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.createdAt, t.closedAt, t.priority, c.id FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.closedAt IS NOT NULL AND t.closedAt <= :until")
+    Stream<Object[]> streamResolutionSamples(@Param("until") LocalDateTime until);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.firstUserMessageAt, t.firstStaffResponseAt, t.priority, c.id FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.firstStaffResponseAt IS NOT NULL AND t.firstStaffResponseAt <= :until")
+    Stream<Object[]> streamFirstResponseSamples(@Param("until") LocalDateTime until);
+
+    // Tickets abiertos para reconstruir los plazos del SLA (TicketSlaEngine) en una sola pasada
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id, t.priority, c.id, c.expectedResolutionTimeHours, t.createdAt FROM Ticket t LEFT JOIN t.category c " +
+           "WHERE t.status NOT IN ('RESUELTO', 'CERRADO')")
+    Stream<Object[]> streamOpenForSla();
+
+    // Reclaman la emisión de un aviso de SLA para un plazo: solo la instancia que actualiza la fila lo emite.
+    // No cambian la versión: no es una modificación del ticket
+    @Transactional
+    @Modifying
+    @Query("UPDATE Ticket t SET t.slaWarnedDeadline = :deadline " +
+           "WHERE t.id = :id AND (t.slaWarnedDeadline IS NULL OR t.slaWarnedDeadline <> :deadline)")
+    int claimSlaWarning(@Param("id") Long id, @Param("deadline") LocalDateTime deadline);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Ticket t SET t.slaBreachedDeadline = :deadline " +
+           "WHERE t.id = :id AND (t.slaBreachedDeadline IS NULL OR t.slaBreachedDeadline <> :deadline)")
+    int claimSlaBreach(@Param("id") Long id, @Param("deadline") LocalDateTime deadline);
+
+    @Query("SELECT MIN(t.createdAt) FROM Ticket t")
+    LocalDateTime findEarliestCreatedAt();
+
+    // Tickets calificados antes de existir rated_at: se toma la fecha de cierre como fecha de calificación
+    @Modifying
+    @Query("UPDATE Ticket t SET t.ratedAt = COALESCE(t.closedAt, t.updatedAt) " +
+           "WHERE t.satisfactionRating IS NOT NULL AND t.ratedAt IS NULL")
+    int backfillRatedAt();
+
     @Query("SELECT t.status, COUNT(t) FROM Ticket t GROUP BY t.status")
     List<Object[]> getTicketCountsByStatus();
 
+    // Versiones de unos tickets; la conciliación de estadísticas las lee en la misma instantánea que los agregados
+    @Query("SELECT t.id, t.version FROM Ticket t WHERE t.id IN :ids")
+    List<Object[]> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.version FROM Ticket t WHERE t.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
     @Query("SELECT t.priority, COUNT(t) FROM Ticket t GROUP BY t.priority")
     List<Object[]> getTicketCountsByPriority();
 
     @Query("SELECT t.category.name, COUNT(t) FROM Ticket t GROUP BY t.category.name")
     List<Object[]> getTicketCountsByCategory();
 
-    @Query("SELECT AVG(t.satisfactionRating) FROM Ticket t WHERE t.satisfactionRating IS NOT NULL")
-    Double getAverageSatisfactionRating();
+    // Agregados de partida para TicketStatsEngine, que después los mantiene con los eventos de cada ticket
+    @Query(value = "SELECT COUNT(*) AS count, SUM(EXTRACT(epoch FROM (closed_at - created_at))) AS total " +
+                   "FROM tickets WHERE status = 'CERRADO' AND closed_at IS NOT NULL", nativeQuery = true)
+    AggregateTotals getResolutionTimeTotals();
+
+    @Query("SELECT COUNT(t.satisfactionRating) AS count, SUM(t.satisfactionRating) AS total FROM Ticket t")
+    AggregateTotals getSatisfactionRatingTotals();
 }
@@ -0,0 +1,15 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.Ticket;
+
+import java.util.Optional;
+
+public interface TicketRepositoryCustom {
+
+    /**
+     * Lee el ticket y su categoría en una sola consulta bloqueando solo la fila del ticket
+     * (SELECT ... FOR UPDATE) hasta el final de la transacción. Lo leído es el estado anterior
+     * a una transición, y las transiciones concurrentes sobre el mismo ticket esperan en vez de fallar.
+     */
+    Optional<Ticket> findByIdForUpdate(Long id);
+}
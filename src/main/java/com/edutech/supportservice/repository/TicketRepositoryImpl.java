@@ -0,0 +1,26 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.Ticket;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.LockMode;
+import org.hibernate.query.SelectionQuery;
+
+import java.util.Optional;
+
+class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Ticket> findByIdForUpdate(Long id) {
+        // El bloqueo se limita al alias del ticket: la categoría llega por un LEFT JOIN, que PostgreSQL
+        // no deja bloquear, y bloquearla pondría en fila las transiciones de todos sus tickets
+        return entityManager.createQuery("SELECT t FROM Ticket t LEFT JOIN FETCH t.category WHERE t.id = :id", Ticket.class)
+                .unwrap(SelectionQuery.class)
+                .setParameter("id", id)
+                .setLockMode("t", LockMode.PESSIMISTIC_WRITE)
+                .uniqueResultOptional();
+    }
+}
@@ -0,0 +1,28 @@
+package com.edutech.supportservice.repository;
+
+import com.edutech.supportservice.model.TicketRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas comunes a las tablas de agregados por hora y por día
+ */
+@NoRepositoryBean
+public interface TicketRollupRepository<T extends TicketRollup> extends JpaRepository<T, Long> {
+
+    // Filas que puede modificar una pasada del job (pocos intervalos)
+    List<T> findByBucketStartIn(Collection<LocalDateTime> bucketStarts);
+
+    // Usa el índice único (dimension, bucket_start, dimension_value)
+    @Query("SELECT r FROM #{#entityName} r WHERE r.dimension = :dimension " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart, r.dimensionValue")
+    List<T> findSeries(@Param("dimension") String dimension,
+                       @Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to);
+}
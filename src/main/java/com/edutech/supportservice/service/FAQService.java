@@ -1,8 +1,10 @@
 package com.edutech.supportservice.service;
 
 import com.edutech.supportservice.dto.FAQDTO;
+import com.edutech.supportservice.service.snapshot.FAQSnapshot;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,12 +13,21 @@ public interface FAQService {
 
     List<FAQDTO> getAllFAQs();
 
+    void streamAllFAQs(Consumer<FAQDTO> consumer);
+
     List<FAQDTO> getPublishedFAQs();
 
+    FAQSnapshot.Payload getPublishedPayload();
+
     FAQDTO getFAQById(Long id);
 
+    // ETag calculado con una sonda agregada, sin cargar las FAQs
+    String getAllFAQsETag();
+
     List<FAQDTO> getFAQsByCategory(Long categoryId);
 
+    FAQSnapshot.Payload getPublishedPayloadByCategory(Long categoryId);
+
     Page<FAQDTO> searchFAQs(String keyword, Pageable pageable);
 
     FAQDTO createFAQ(FAQDTO faqDTO);
@@ -29,11 +40,11 @@ public interface FAQService {
 
     FAQDTO unpublishFAQ(Long id);
 
-    FAQDTO incrementViewCount(Long id);
+    void incrementViewCount(Long id);
 
-    FAQDTO addHelpfulVote(Long id);
+    void addHelpfulVote(Long id);
 
-    FAQDTO addUnhelpfulVote(Long id);
+    void addUnhelpfulVote(Long id);
 
     List<FAQDTO> getMostViewedFAQs(int limit);
 
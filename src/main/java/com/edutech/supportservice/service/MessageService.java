@@ -1,25 +1,33 @@
 package com.edutech.supportservice.service;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
 import com.edutech.supportservice.dto.MessageDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface MessageService {
 
     List<MessageDTO> getMessagesByTicket(Long ticketId);
 
+    CursorPageDTO<MessageDTO> getMessageFeedByTicket(Long ticketId, String after, int size);
+
     MessageDTO getMessageById(Long id);
 
     MessageDTO createMessage(MessageDTO messageDTO);
 
     MessageDTO createInternalNote(MessageDTO messageDTO);
 
-    void markMessageAsRead(Long messageId);
+    void markMessageAsRead(Long messageId, Long userId);
+
+    int markAllTicketMessagesAsRead(Long ticketId, Long userId);
 
-    void markAllTicketMessagesAsRead(Long ticketId, Long userId);
+    int markTicketsMessagesAsRead(List<Long> ticketIds, Long userId);
 
     Integer countUnreadMessagesByTicket(Long ticketId, Long userId);
 
+    Map<Long, Long> getUnreadCountsByUser(Long userId);
+
     List<MessageDTO> getInternalNotesByTicket(Long ticketId);
 
     Double getAverageMessagesPerTicket();
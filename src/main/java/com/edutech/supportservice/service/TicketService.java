@@ -1,9 +1,13 @@
 package com.edutech.supportservice.service;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
+import com.edutech.supportservice.dto.TicketBatchResultDTO;
 import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.dto.TicketStatsDTO;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +18,8 @@ public interface TicketService {
 
     Page<TicketDTO> getTicketsPaginated(Pageable pageable);
 
+    CursorPageDTO<TicketDTO> getTicketFeed(String after, int size);
+
     TicketDTO getTicketById(Long id);
 
     List<TicketDTO> getTicketsByUser(Long userId);
@@ -26,14 +32,50 @@ public interface TicketService {
 
     List<TicketDTO> getTicketsByCourse(Long courseId);
 
+    // ETags calculados con una sonda agregada, sin cargar los tickets
+    String getTicketETag(Long id);
+
+    String getAllTicketsETag();
+
+    String getTicketsPageETag(Pageable pageable);
+
+    String getTicketsByUserETag(Long userId);
+
+    String getTicketsByAssignedToETag(Long staffId);
+
+    String getTicketsByStatusETag(String status);
+
+    String getTicketsByCategoryETag(Long categoryId);
+
+    String getTicketsByCourseETag(Long courseId);
+
+    void streamAllTickets(Consumer<TicketDTO> consumer);
+
+    void streamTicketsByUser(Long userId, Consumer<TicketDTO> consumer);
+
+    void streamTicketsByAssignedTo(Long staffId, Consumer<TicketDTO> consumer);
+
+    void streamTicketsByStatus(String status, Consumer<TicketDTO> consumer);
+
+    void streamTicketsByCategory(Long categoryId, Consumer<TicketDTO> consumer);
+
+    void streamTicketsByCourse(Long courseId, Consumer<TicketDTO> consumer);
+
     Page<TicketDTO> searchTickets(String keyword, Pageable pageable);
 
     TicketDTO createTicket(TicketDTO ticketDTO);
 
+    // Crea hasta 1000 tickets; los que fallan se informan por posición sin afectar al resto
+    TicketBatchResultDTO createTickets(List<TicketDTO> ticketDTOs);
+
     TicketDTO updateTicket(Long id, TicketDTO ticketDTO);
 
+    // Asigna un ticket libre; si ya lo tiene otro agente lanza TicketTransitionConflictException
     TicketDTO assignTicket(Long id, Long staffId);
 
+    // Pasa el ticket a otro agente aunque ya esté asignado
+    TicketDTO reassignTicket(Long id, Long staffId);
+
     TicketDTO changeTicketStatus(Long id, String status);
 
     TicketDTO changeTicketPriority(Long id, String priority);
@@ -42,6 +84,10 @@ public interface TicketService {
 
     void deleteTicket(Long id);
 
+    TicketStatsDTO getTicketStats();
+
+    String getTicketStatsETag();
+
     Map<String, Integer> getTicketStatusCounts();
 
     Map<String, Integer> getTicketPriorityCounts();
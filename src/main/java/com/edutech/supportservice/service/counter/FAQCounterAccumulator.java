@@ -0,0 +1,154 @@
+package com.edutech.supportservice.service.counter;
+
+import com.edutech.supportservice.event.FAQCatalogChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumula en memoria las visitas y votos de las FAQs y los vuelca periódicamente
+ * a la base de datos con UPDATE incrementales por lotes, en lugar de leer y
+ * guardar la fila completa en cada petición.
+ */
+@Slf4j
+@Component
+public class FAQCounterAccumulator {
+
+    private static final String FLUSH_SQL = "UPDATE faqs SET " +
+            "view_count = COALESCE(view_count, 0) + ?, " +
+            "helpful_votes = COALESCE(helpful_votes, 0) + ?, " +
+            "unhelpful_votes = COALESCE(unhelpful_votes, 0) + ? " +
+            "WHERE id = ?";
+
+    private final Map<Long, PendingCounters> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public FAQCounterAccumulator(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("faq.counters.pending", this, FAQCounterAccumulator::getPendingDeltas)
+                .description("Incrementos de visitas y votos de FAQs pendientes de volcar a la base de datos")
+                .register(meterRegistry);
+    }
+
+    public void addView(Long faqId) {
+        countersFor(faqId).views.increment();
+    }
+
+    public void addHelpfulVote(Long faqId) {
+        countersFor(faqId).helpfulVotes.increment();
+    }
+
+    public void addUnhelpfulVote(Long faqId) {
+        countersFor(faqId).unhelpfulVotes.increment();
+    }
+
+    /**
+     * Suma de todos los incrementos aún no volcados
+     */
+    public long getPendingDeltas() {
+        long total = 0;
+        for (PendingCounters counters : pending.values()) {
+            total += counters.views.sum() + counters.helpfulVotes.sum() + counters.unhelpfulVotes.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Vuelca los incrementos pendientes en un único lote de UPDATE dentro de una transacción.
+     * Si el lote falla, los incrementos se devuelven al acumulador para el siguiente intento.
+     */
+    @Scheduled(fixedDelayString = "${app.faq.counters.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Long> faqIds = new ArrayList<>();
+            List<Object[]> batchArgs = new ArrayList<>();
+
+            for (Map.Entry<Long, PendingCounters> entry : pending.entrySet()) {
+                PendingCounters counters = entry.getValue();
+                long views = counters.views.sumThenReset();
+                long helpful = counters.helpfulVotes.sumThenReset();
+                long unhelpful = counters.unhelpfulVotes.sumThenReset();
+                if (views != 0 || helpful != 0 || unhelpful != 0) {
+                    faqIds.add(entry.getKey());
+                    batchArgs.add(new Object[]{views, helpful, unhelpful, entry.getKey()});
+                }
+            }
+
+            if (batchArgs.isEmpty()) {
+                return;
+            }
+
+            int[] results;
+            try {
+                results = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+            } catch (DataAccessException e) {
+                log.warn("No se pudieron volcar los contadores de {} FAQs, se reintentará: {}", batchArgs.size(), e.getMessage());
+                restore(batchArgs);
+                return;
+            }
+
+            // Las FAQs inexistentes no actualizan filas: se descartan para no acumularlas indefinidamente
+            for (int i = 0; results != null && i < results.length; i++) {
+                if (results[i] == 0) {
+                    pending.remove(faqIds.get(i));
+                }
+            }
+            log.debug("Contadores de {} FAQs volcados a la base de datos", batchArgs.size());
+            eventPublisher.publishEvent(FAQCatalogChangedEvent.counters(new HashSet<>(faqIds)));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private PendingCounters countersFor(Long faqId) {
+        return pending.computeIfAbsent(faqId, id -> new PendingCounters());
+    }
+
+    private void restore(List<Object[]> batchArgs) {
+        for (Object[] args : batchArgs) {
+            PendingCounters counters = countersFor((Long) args[3]);
+            counters.views.add((Long) args[0]);
+            counters.helpfulVotes.add((Long) args[1]);
+            counters.unhelpfulVotes.add((Long) args[2]);
+        }
+    }
+
+    private static class PendingCounters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder helpfulVotes = new LongAdder();
+        private final LongAdder unhelpfulVotes = new LongAdder();
+    }
+}
@@ -1,70 +1,239 @@
 package com.edutech.supportservice.service.impl;
 
+import com.edutech.supportservice.config.CacheConfig;
+import com.edutech.supportservice.config.ReadReplicaRouting;
 import com.edutech.supportservice.dto.FAQDTO;
+import com.edutech.supportservice.event.FAQCatalogChangedEvent;
 import com.edutech.supportservice.exception.ResourceNotFoundException;
 import com.edutech.supportservice.model.FAQ;
 import com.edutech.supportservice.model.TicketCategory;
 import com.edutech.supportservice.repository.FAQRepository;
 import com.edutech.supportservice.repository.TicketCategoryRepository;
 import com.edutech.supportservice.service.FAQService;
+import com.edutech.supportservice.service.counter.FAQCounterAccumulator;
+import com.edutech.supportservice.service.search.SearchHit;
+import com.edutech.supportservice.service.search.SearchIndex;
+import com.edutech.supportservice.service.snapshot.FAQSnapshot;
+import com.edutech.supportservice.util.ETagUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class FAQServiceImpl implements FAQService {
 
     private final FAQRepository faqRepository;
     private final TicketCategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final FAQCounterAccumulator counterAccumulator;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final AtomicBoolean countersChanged = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile FAQSnapshot publishedSnapshot;
 
     @Autowired
-    public FAQServiceImpl(FAQRepository faqRepository, TicketCategoryRepository categoryRepository) {
+    public FAQServiceImpl(FAQRepository faqRepository,
+                          TicketCategoryRepository categoryRepository,
+                          EntityManager entityManager,
+                          FAQCounterAccumulator counterAccumulator,
+                          SearchIndex searchIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectMapper objectMapper,
+                          CacheManager cacheManager) {
         this.faqRepository = faqRepository;
         this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.counterAccumulator = counterAccumulator;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FAQDTO> getAllFAQs() {
         return faqRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllFAQs(Consumer<FAQDTO> consumer) {
+        try (Stream<FAQ> faqs = faqRepository.streamAll()) {
+            Iterator<FAQ> iterator = faqs.iterator();
+            while (iterator.hasNext()) {
+                FAQ faq = iterator.next();
+                consumer.accept(convertToDTO(faq));
+                entityManager.detach(faq);
+            }
+        }
+    }
+
     @Override
     public List<FAQDTO> getPublishedFAQs() {
-        return faqRepository.findByPublishedTrueOrderByDisplayOrderAsc().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getPublishedSnapshot().getPublished();
     }
 
     @Override
+    public FAQSnapshot.Payload getPublishedPayload() {
+        return getPublishedSnapshot().getPublishedPayload();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.FAQ_BY_ID, key = "#id")
     public FAQDTO getFAQById(Long id) {
-        FAQ faq = faqRepository.findById(id)
+        // Se lee del primario para no guardar en la caché una versión anterior al último cambio
+        FAQ faq = ReadReplicaRouting.onPrimary(() -> faqRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
         return convertToDTO(faq);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllFAQsETag() {
+        return ETagUtil.of("faqs", faqRepository.probeAll());
+    }
+
     @Override
     public List<FAQDTO> getFAQsByCategory(Long categoryId) {
+        List<FAQDTO> faqs = getPublishedSnapshot().getByCategory(categoryId);
+        if (faqs != null) {
+            return faqs;
+        }
+
+        // Solo se consulta la base de datos para categorías sin FAQs publicadas
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Categoría", "id", categoryId);
         }
+        return List.of();
+    }
 
-        return faqRepository.findByCategoryIdAndPublishedTrue(categoryId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Override
+    public FAQSnapshot.Payload getPublishedPayloadByCategory(Long categoryId) {
+        FAQSnapshot.Payload payload = getPublishedSnapshot().getCategoryPayload(categoryId);
+        if (payload != null) {
+            return payload;
+        }
+
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Categoría", "id", categoryId);
+        }
+        return FAQSnapshot.EMPTY_PAYLOAD;
+    }
+
+    /**
+     * Foto actual del catálogo publicado; se construye en la primera petición si aún no existe.
+     */
+    private FAQSnapshot getPublishedSnapshot() {
+        FAQSnapshot current = publishedSnapshot;
+        return current != null ? current : rebuildPublishedSnapshot();
+    }
+
+    /**
+     * Recalcula la foto del catálogo publicado con una sola consulta y la sustituye de forma atómica.
+     * Usa un ReentrantLock en lugar de synchronized para no fijar el hilo portador mientras espera
+     * a la base de datos cuando se ejecuta en hilos virtuales.
+     */
+    public FAQSnapshot rebuildPublishedSnapshot() {
+        rebuildLock.lock();
+        try {
+            // Del primario: se reconstruye justo después de confirmar un cambio, que una réplica quizá aún no tiene
+            List<FAQDTO> published = ReadReplicaRouting.onPrimary(faqRepository::findByPublishedTrueOrderByDisplayOrderAsc).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+            FAQSnapshot snapshot = FAQSnapshot.build(snapshotVersion.incrementAndGet(), published, objectMapper);
+            publishedSnapshot = snapshot;
+            log.debug("Catálogo de FAQs publicado reconstruido: versión {}, {} FAQs", snapshot.getVersion(), published.size());
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpPublishedSnapshot() {
+        rebuildPublishedSnapshot();
+    }
+
+    // Los cambios de contenido se reflejan al confirmar la transacción; los de contadores, en el siguiente refresco.
+    // Las FAQs con contadores volcados salen de faqById para que GET /{id} no siga sirviendo los anteriores
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(FAQCatalogChangedEvent event) {
+        if (event.isCountersOnly()) {
+            Cache faqById = cacheManager.getCache(CacheConfig.FAQ_BY_ID);
+            if (faqById != null) {
+                // Ya después del commit: evict se aplazaría a una sincronización que no llega a ejecutarse
+                event.getFaqIds().forEach(faqById::evictIfPresent);
+            }
+            countersChanged.set(true);
+        } else {
+            rebuildPublishedSnapshot();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.faq.snapshot.counters-refresh-ms:30000}")
+    public void refreshPublishedSnapshotCounters() {
+        if (countersChanged.getAndSet(false)) {
+            rebuildPublishedSnapshot();
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<FAQDTO> searchFAQs(String keyword, Pageable pageable) {
-        return faqRepository.searchByKeyword(keyword, pageable)
-                .map(this::convertToDTO);
+        Page<SearchHit> hits = searchIndex.searchFAQs(keyword, pageable);
+        Map<Long, FAQ> faqs = faqRepository.findAllById(hits.map(SearchHit::getId).getContent()).stream()
+                .collect(Collectors.toMap(FAQ::getId, Function.identity()));
+
+        // Conservar el orden por relevancia del índice
+        List<FAQDTO> results = new ArrayList<>(hits.getNumberOfElements());
+        for (SearchHit hit : hits) {
+            FAQ faq = faqs.get(hit.getId());
+            if (faq != null) {
+                FAQDTO dto = convertToDTO(faq);
+                dto.setHighlight(hit.getHighlight());
+                results.add(dto);
+            }
+        }
+        return new PageImpl<>(results, pageable, hits.getTotalElements());
     }
 
     @Override
@@ -85,11 +254,14 @@ public class FAQServiceImpl implements FAQService {
         faq.setPublished(faqDTO.getPublished() != null ? faqDTO.getPublished() : false);
 
         FAQ savedFAQ = faqRepository.save(faq);
+        searchIndex.indexFAQ(savedFAQ);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
         return convertToDTO(savedFAQ);
     }
 
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.FAQ_BY_ID, key = "#id")
     public FAQDTO updateFAQ(Long id, FAQDTO faqDTO) {
         FAQ faq = faqRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
@@ -111,74 +283,80 @@ public class FAQServiceImpl implements FAQService {
         }
 
         FAQ updatedFAQ = faqRepository.save(faq);
+        searchIndex.indexFAQ(updatedFAQ);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
         return convertToDTO(updatedFAQ);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FAQ_BY_ID, key = "#id")
     public void deleteFAQ(Long id) {
         FAQ faq = faqRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
 
         faqRepository.delete(faq);
+        searchIndex.removeFAQ(id);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
     }
 
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.FAQ_BY_ID, key = "#id")
     public FAQDTO publishFAQ(Long id) {
         FAQ faq = faqRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
 
         faq.setPublished(true);
         FAQ updatedFAQ = faqRepository.save(faq);
+        searchIndex.indexFAQ(updatedFAQ);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
         return convertToDTO(updatedFAQ);
     }
 
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.FAQ_BY_ID, key = "#id")
     public FAQDTO unpublishFAQ(Long id) {
         FAQ faq = faqRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
 
         faq.setPublished(false);
         FAQ updatedFAQ = faqRepository.save(faq);
+        searchIndex.indexFAQ(updatedFAQ);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
         return convertToDTO(updatedFAQ);
     }
 
+    // Los contadores se acumulan en memoria y se vuelcan por lotes (FAQCounterAccumulator)
     @Override
-    @Transactional
-    public FAQDTO incrementViewCount(Long id) {
-        FAQ faq = faqRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
-
-        faq.incrementViewCount();
-        FAQ updatedFAQ = faqRepository.save(faq);
-        return convertToDTO(updatedFAQ);
+    public void incrementViewCount(Long id) {
+        requireExisting(id);
+        counterAccumulator.addView(id);
     }
 
     @Override
-    @Transactional
-    public FAQDTO addHelpfulVote(Long id) {
-        FAQ faq = faqRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
-
-        faq.addHelpfulVote();
-        FAQ updatedFAQ = faqRepository.save(faq);
-        return convertToDTO(updatedFAQ);
+    public void addHelpfulVote(Long id) {
+        requireExisting(id);
+        counterAccumulator.addHelpfulVote(id);
     }
 
     @Override
-    @Transactional
-    public FAQDTO addUnhelpfulVote(Long id) {
-        FAQ faq = faqRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("FAQ", "id", id));
+    public void addUnhelpfulVote(Long id) {
+        requireExisting(id);
+        counterAccumulator.addUnhelpfulVote(id);
+    }
 
-        faq.addUnhelpfulVote();
-        FAQ updatedFAQ = faqRepository.save(faq);
-        return convertToDTO(updatedFAQ);
+    // Las publicadas se comprueban en la foto del catálogo; solo las demás (sin publicar, o publicadas
+    // desde otra instancia después de la última reconstrucción) van a la base de datos
+    private void requireExisting(Long id) {
+        if (!getPublishedSnapshot().isPublished(id) && !faqRepository.existsById(id)) {
+            throw new ResourceNotFoundException("FAQ", "id", id);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FAQDTO> getMostViewedFAQs(int limit) {
         return faqRepository.findMostViewedFAQs(0, PageRequest.of(0, limit)).stream()
                 .map(this::convertToDTO)
@@ -186,6 +364,7 @@ public class FAQServiceImpl implements FAQService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FAQDTO> getMostHelpfulFAQs(int limit) {
         return faqRepository.findMostHelpfulFAQs(0, PageRequest.of(0, limit)).stream()
                 .map(this::convertToDTO)
@@ -193,12 +372,14 @@ public class FAQServiceImpl implements FAQService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double getHelpfulnessRatio() {
         return faqRepository.getAverageHelpfulRatio();
     }
 
     // Método para convertir una entidad FAQ a DTO
-    private FAQDTO convertToDTO(FAQ faq) {
+    // Visible en el paquete para los benchmarks JMH de src/jmh/java
+    FAQDTO convertToDTO(FAQ faq) {
         FAQDTO dto = new FAQDTO();
         dto.setId(faq.getId());
         dto.setQuestion(faq.getQuestion());
@@ -1,32 +1,58 @@
 package com.edutech.supportservice.service.impl;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
 import com.edutech.supportservice.dto.MessageDTO;
+import com.edutech.supportservice.event.TicketActivityEvent;
+import com.edutech.supportservice.event.TicketFirstResponseEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
 import com.edutech.supportservice.exception.ResourceNotFoundException;
 import com.edutech.supportservice.model.Message;
 import com.edutech.supportservice.model.Ticket;
 import com.edutech.supportservice.repository.MessageRepository;
+import com.edutech.supportservice.repository.TicketReadCursorRepository;
 import com.edutech.supportservice.repository.TicketRepository;
 import com.edutech.supportservice.service.MessageService;
+import com.edutech.supportservice.util.SeekCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int MAX_MARK_READ_TICKETS = 500;
+
     private final MessageRepository messageRepository;
     private final TicketRepository ticketRepository;
+    private final TicketReadCursorRepository ticketReadCursorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public MessageServiceImpl(MessageRepository messageRepository, TicketRepository ticketRepository) {
+    public MessageServiceImpl(MessageRepository messageRepository,
+                              TicketRepository ticketRepository,
+                              TicketReadCursorRepository ticketReadCursorRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.messageRepository = messageRepository;
         this.ticketRepository = ticketRepository;
+        this.ticketReadCursorRepository = ticketReadCursorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MessageDTO> getMessagesByTicket(Long ticketId) {
         if (!ticketRepository.existsById(ticketId)) {
             throw new ResourceNotFoundException("Ticket", "id", ticketId);
@@ -38,6 +64,37 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MessageDTO> getMessageFeedByTicket(Long ticketId, String after, int size) {
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket", "id", ticketId);
+        }
+
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_FEED_SIZE));
+
+        Slice<Message> slice;
+        if (after == null || after.isBlank()) {
+            slice = messageRepository.findFeedByTicketId(ticketId, pageable);
+        } else {
+            SeekCursor cursor = SeekCursor.decode(after);
+            slice = messageRepository.findFeedByTicketIdAfter(ticketId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+
+        List<MessageDTO> items = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Message last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new SeekCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(items, items.size(), slice.hasNext(), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public MessageDTO getMessageById(Long id) {
         Message message = messageRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Mensaje", "id", id));
@@ -60,17 +117,25 @@ public class MessageServiceImpl implements MessageService {
         message.setAttachmentUrl(messageDTO.getAttachmentUrl());
         message.setAttachmentType(messageDTO.getAttachmentType());
         message.setIsInternalNote(false);
-        message.setIsRead(false);
 
         Message savedMessage = messageRepository.save(message);
+        ticketRepository.registerMessage(ticket.getId(), savedMessage.getSenderType(), false, savedMessage.getCreatedAt());
+        publishIfFirstResponse(ticket, savedMessage);
 
-        // Actualizar el estado del ticket si es necesario
-        if ("ASIGNADO".equals(ticket.getStatus()) && "SOPORTE".equals(messageDTO.getSenderType())) {
-            ticket.setStatus("EN_PROGRESO");
-            ticketRepository.save(ticket);
+        // La primera respuesta de soporte pasa el ticket de ASIGNADO a EN_PROGRESO
+        if ("SOPORTE".equals(messageDTO.getSenderType())
+                && ticketRepository.startProgressIfAssigned(ticket.getId(), LocalDateTime.now()) > 0) {
+            // El ticket se leyó sin bloqueo: la versión que dejó la sentencia se lee con la fila ya bloqueada por ella
+            TicketStatsChangedEvent.Snapshot assigned = TicketStatsChangedEvent.Snapshot.of(ticket).withStatus("ASIGNADO");
+            TicketStatsChangedEvent.Snapshot inProgress = assigned.withStatus("EN_PROGRESO")
+                    .withVersion(ticketRepository.findVersionById(ticket.getId()));
+            eventPublisher.publishEvent(TicketStatsChangedEvent.changed(assigned, inProgress));
+            eventPublisher.publishEvent(TicketActivityEvent.statusChanged(ticket.getId(), "EN_PROGRESO"));
         }
 
-        return convertToDTO(savedMessage);
+        MessageDTO savedMessageDTO = convertToDTO(savedMessage);
+        eventPublisher.publishEvent(TicketActivityEvent.message(savedMessageDTO));
+        return savedMessageDTO;
     }
 
     @Override
@@ -94,47 +159,76 @@ public class MessageServiceImpl implements MessageService {
         message.setAttachmentUrl(messageDTO.getAttachmentUrl());
         message.setAttachmentType(messageDTO.getAttachmentType());
         message.setIsInternalNote(true);
-        message.setIsRead(false);
 
         Message savedMessage = messageRepository.save(message);
+        ticketRepository.registerMessage(ticket.getId(), savedMessage.getSenderType(), true, savedMessage.getCreatedAt());
         return convertToDTO(savedMessage);
     }
 
     @Override
     @Transactional
-    public void markMessageAsRead(Long messageId) {
+    public void markMessageAsRead(Long messageId, Long userId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Mensaje", "id", messageId));
 
-        message.setIsRead(true);
-        messageRepository.save(message);
+        ticketReadCursorRepository.advance(message.getTicket().getId(), userId, messageId, LocalDateTime.now());
     }
 
     @Override
     @Transactional
-    public void markAllTicketMessagesAsRead(Long ticketId, Long userId) {
+    public int markAllTicketMessagesAsRead(Long ticketId, Long userId) {
         if (!ticketRepository.existsById(ticketId)) {
             throw new ResourceNotFoundException("Ticket", "id", ticketId);
         }
 
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesByTicketForUser(ticketId, userId);
+        int unread = Math.toIntExact(messageRepository.countUnreadByTicketForUser(ticketId, userId));
+        if (unread > 0) {
+            Long latestMessageId = messageRepository.findLatestMessageId(ticketId);
+            ticketReadCursorRepository.advance(ticketId, userId, latestMessageId, LocalDateTime.now());
+        }
+        return unread;
+    }
+
+    @Override
+    @Transactional
+    public int markTicketsMessagesAsRead(List<Long> ticketIds, Long userId) {
+        if (ticketIds == null || ticketIds.isEmpty()) {
+            return 0;
+        }
+        if (ticketIds.size() > MAX_MARK_READ_TICKETS) {
+            throw new IllegalArgumentException("No se pueden marcar más de " + MAX_MARK_READ_TICKETS + " tickets a la vez");
+        }
 
-        for (Message message : unreadMessages) {
-            message.setIsRead(true);
-            messageRepository.save(message);
+        // Los tickets inexistentes o sin mensajes no generan cursor
+        Map<Long, Long> latestByTicket = new HashMap<>();
+        for (Object[] row : messageRepository.findLatestMessageIdsByTicketIds(new HashSet<>(ticketIds))) {
+            latestByTicket.put((Long) row[0], (Long) row[1]);
         }
+        return ticketReadCursorRepository.advanceAll(latestByTicket, userId, LocalDateTime.now());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Integer countUnreadMessagesByTicket(Long ticketId, Long userId) {
         if (!ticketRepository.existsById(ticketId)) {
             throw new ResourceNotFoundException("Ticket", "id", ticketId);
         }
 
-        return messageRepository.findUnreadMessagesByTicketForUser(ticketId, userId).size();
+        return Math.toIntExact(messageRepository.countUnreadByTicketForUser(ticketId, userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getUnreadCountsByUser(Long userId) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : ticketReadCursorRepository.countUnreadByUser(userId)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<MessageDTO> getInternalNotesByTicket(Long ticketId) {
         if (!ticketRepository.existsById(ticketId)) {
             throw new ResourceNotFoundException("Ticket", "id", ticketId);
@@ -146,10 +240,27 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double getAverageMessagesPerTicket() {
         return messageRepository.getAverageMessagesPerTicket();
     }
 
+    // Si este mensaje quedó registrado como la primera respuesta de soporte, lo notifica para los percentiles
+    private void publishIfFirstResponse(Ticket ticket, Message message) {
+        if (!"SOPORTE".equals(message.getSenderType())
+                || ticket.getFirstUserMessageAt() == null
+                || ticket.getFirstStaffResponseAt() != null) {
+            return;
+        }
+        ticketRepository.findFirstUserMessageAtIfFirstResponse(ticket.getId(), message.getCreatedAt())
+                .ifPresent(firstUserMessageAt -> eventPublisher.publishEvent(new TicketFirstResponseEvent(
+                        ticket.getId(),
+                        ticket.getPriority(),
+                        ticket.getCategory() != null ? ticket.getCategory().getId() : null,
+                        firstUserMessageAt,
+                        message.getCreatedAt())));
+    }
+
     // Método para convertir una entidad Message a DTO
     private MessageDTO convertToDTO(Message message) {
         MessageDTO dto = new MessageDTO();
@@ -164,7 +275,6 @@ public class MessageServiceImpl implements MessageService {
         dto.setIsInternalNote(message.getIsInternalNote());
         dto.setCreatedAt(message.getCreatedAt());
         dto.setTicketId(message.getTicket().getId());
-        dto.setIsRead(message.getIsRead());
         return dto;
     }
 }
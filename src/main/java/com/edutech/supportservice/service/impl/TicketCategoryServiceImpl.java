@@ -1,28 +1,51 @@
 package com.edutech.supportservice.service.impl;
 
+import com.edutech.supportservice.config.CacheConfig;
+import com.edutech.supportservice.config.ReadReplicaRouting;
 import com.edutech.supportservice.dto.TicketCategoryDTO;
+import com.edutech.supportservice.event.FAQCatalogChangedEvent;
+import com.edutech.supportservice.event.TicketCategoryRenamedEvent;
+import com.edutech.supportservice.event.TicketCategorySlaChangedEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
 import com.edutech.supportservice.exception.ResourceNotFoundException;
 import com.edutech.supportservice.model.TicketCategory;
 import com.edutech.supportservice.repository.TicketCategoryRepository;
 import com.edutech.supportservice.service.TicketCategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TicketCategoryServiceImpl implements TicketCategoryService {
 
     private final TicketCategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public TicketCategoryServiceImpl(TicketCategoryRepository categoryRepository) {
+    public TicketCategoryServiceImpl(TicketCategoryRepository categoryRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     CacheManager cacheManager) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketCategoryDTO> getAllCategories() {
         return categoryRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -30,28 +53,36 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.ACTIVE_CATEGORIES)
     public List<TicketCategoryDTO> getActiveCategories() {
-        return categoryRepository.findByActiveTrue().stream()
+        // Lo que entra en la caché se lee del primario: una réplica retrasada dejaría el valor anterior hasta que expire
+        return ReadReplicaRouting.onPrimary(categoryRepository::findByActiveTrue).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id")
     public TicketCategoryDTO getCategoryById(Long id) {
-        TicketCategory category = categoryRepository.findById(id)
+        TicketCategory category = ReadReplicaRouting.onPrimary(() -> categoryRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
         return convertToDTO(category);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BY_NAME, key = "#name")
     public TicketCategoryDTO getCategoryByName(String name) {
-        TicketCategory category = categoryRepository.findByName(name)
+        TicketCategory category = ReadReplicaRouting.onPrimary(() -> categoryRepository.findByName(name))
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "nombre", name));
         return convertToDTO(category);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACTIVE_CATEGORIES, allEntries = true)
     public TicketCategoryDTO createCategory(TicketCategoryDTO categoryDTO) {
         if (categoryRepository.existsByName(categoryDTO.getName())) {
             throw new IllegalArgumentException("Ya existe una categoría con este nombre");
@@ -66,6 +97,13 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_NAME, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ACTIVE_CATEGORIES, allEntries = true),
+            // Las FAQs incluyen el nombre de la categoría
+            @CacheEvict(cacheNames = CacheConfig.FAQ_BY_ID, allEntries = true)
+    })
     public TicketCategoryDTO updateCategory(Long id, TicketCategoryDTO categoryDTO) {
         TicketCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
@@ -76,14 +114,30 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
             throw new IllegalArgumentException("Ya existe otra categoría con este nombre");
         }
 
+        String previousName = category.getName();
+        Integer previousResolutionHours = category.getExpectedResolutionTimeHours();
         updateCategoryFromDTO(category, categoryDTO);
 
         TicketCategory updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
+        // Las estadísticas de tickets se agrupan por nombre de categoría
+        if (!previousName.equals(updatedCategory.getName())) {
+            eventPublisher.publishEvent(new TicketCategoryRenamedEvent(previousName, updatedCategory.getName()));
+        }
+        // Los plazos del SLA de los tickets abiertos dependen del tiempo esperado de la categoría
+        if (!Objects.equals(previousResolutionHours, updatedCategory.getExpectedResolutionTimeHours())) {
+            eventPublisher.publishEvent(new TicketCategorySlaChangedEvent(id, updatedCategory.getExpectedResolutionTimeHours()));
+        }
         return convertToDTO(updatedCategory);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_NAME, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ACTIVE_CATEGORIES, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         TicketCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
@@ -94,10 +148,16 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
         }
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(FAQCatalogChangedEvent.content());
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_NAME, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ACTIVE_CATEGORIES, allEntries = true)
+    })
     public TicketCategoryDTO activateCategory(Long id) {
         TicketCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
@@ -109,6 +169,11 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BY_NAME, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ACTIVE_CATEGORIES, allEntries = true)
+    })
     public TicketCategoryDTO deactivateCategory(Long id) {
         TicketCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
@@ -118,6 +183,39 @@ public class TicketCategoryServiceImpl implements TicketCategoryService {
         return convertToDTO(updatedCategory);
     }
 
+    // Las categorías en caché incluyen su número de tickets: al crear o borrar un ticket, o al moverlo
+    // de categoría, se descartan las entradas afectadas. Ya después del commit, así que evictIfPresent e
+    // invalidate, que se aplican al momento
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketStatsChanged(TicketStatsChangedEvent event) {
+        TicketStatsChangedEvent.Snapshot before = event.getBefore();
+        TicketStatsChangedEvent.Snapshot after = event.getAfter();
+        if (before != null && after != null && Objects.equals(before.getCategoryId(), after.getCategoryId())) {
+            return;
+        }
+        List<TicketStatsChangedEvent.Snapshot> touched = Stream.of(before, after)
+                .filter(snapshot -> snapshot != null && snapshot.getCategoryId() != null)
+                .toList();
+        if (touched.isEmpty()) {
+            return;
+        }
+        for (TicketStatsChangedEvent.Snapshot snapshot : touched) {
+            evictIfPresent(CacheConfig.CATEGORY_BY_ID, snapshot.getCategoryId());
+            evictIfPresent(CacheConfig.CATEGORY_BY_NAME, snapshot.getCategoryName());
+        }
+        Cache activeCategories = cacheManager.getCache(CacheConfig.ACTIVE_CATEGORIES);
+        if (activeCategories != null) {
+            activeCategories.invalidate();
+        }
+    }
+
+    private void evictIfPresent(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evictIfPresent(key);
+        }
+    }
+
     // Método auxiliar para actualizar una entidad TicketCategory a partir de un DTO
     private void updateCategoryFromDTO(TicketCategory category, TicketCategoryDTO dto) {
         category.setName(dto.getName());
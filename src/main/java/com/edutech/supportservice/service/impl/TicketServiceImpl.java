@@ -1,44 +1,114 @@
 package com.edutech.supportservice.service.impl;
 
+import com.edutech.supportservice.dto.CursorPageDTO;
 import com.edutech.supportservice.dto.MessageDTO;
+import com.edutech.supportservice.dto.TicketBatchItemResultDTO;
+import com.edutech.supportservice.dto.TicketBatchResultDTO;
 import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.dto.TicketStatsDTO;
+import com.edutech.supportservice.event.TicketActivityEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
 import com.edutech.supportservice.exception.ResourceNotFoundException;
+import com.edutech.supportservice.exception.TicketTransitionConflictException;
 import com.edutech.supportservice.model.Message;
 import com.edutech.supportservice.model.Ticket;
 import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.repository.ChangeProbe;
 import com.edutech.supportservice.repository.MessageRepository;
 import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.repository.TicketReadCursorRepository;
 import com.edutech.supportservice.repository.TicketRepository;
 import com.edutech.supportservice.service.TicketService;
+import com.edutech.supportservice.service.search.SearchHit;
+import com.edutech.supportservice.service.search.SearchIndex;
+import com.edutech.supportservice.service.stats.TicketRollupJob;
+import com.edutech.supportservice.service.stats.TicketStatsEngine;
+import com.edutech.supportservice.util.ETagUtil;
+import com.edutech.supportservice.util.SeekCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class TicketServiceImpl implements TicketService {
 
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Tickets por transacción en la creación por lotes; coincide con hibernate.jdbc.batch_size
+    private static final int BATCH_CHUNK_SIZE = 50;
+
     private final TicketRepository ticketRepository;
     private final TicketCategoryRepository categoryRepository;
     private final MessageRepository messageRepository;
+    private final TicketReadCursorRepository ticketReadCursorRepository;
+    private final SearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketStatsEngine statsEngine;
+    private final TicketRollupJob rollupJob;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
 
     @Autowired
     public TicketServiceImpl(TicketRepository ticketRepository,
                             TicketCategoryRepository categoryRepository,
-                            MessageRepository messageRepository) {
+                            MessageRepository messageRepository,
+                            TicketReadCursorRepository ticketReadCursorRepository,
+                            SearchIndex searchIndex,
+                            EntityManager entityManager,
+                            ApplicationEventPublisher eventPublisher,
+                            TicketStatsEngine statsEngine,
+                            TicketRollupJob rollupJob,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager) {
         this.ticketRepository = ticketRepository;
         this.categoryRepository = categoryRepository;
         this.messageRepository = messageRepository;
+        this.ticketReadCursorRepository = ticketReadCursorRepository;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.statsEngine = statsEngine;
+        this.rollupJob = rollupJob;
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getAllTickets() {
         return ticketRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -46,12 +116,40 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TicketDTO> getTicketsPaginated(Pageable pageable) {
-        return ticketRepository.findAll(pageable)
+        return ticketRepository.findAll(withIdTiebreak(pageable))
                 .map(this::convertToDTO);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TicketDTO> getTicketFeed(String after, int size) {
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_FEED_SIZE));
+
+        Slice<Ticket> slice;
+        if (after == null || after.isBlank()) {
+            slice = ticketRepository.findFeed(pageable);
+        } else {
+            SeekCursor cursor = SeekCursor.decode(after);
+            slice = ticketRepository.findFeedAfter(cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+
+        List<TicketDTO> items = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Ticket last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new SeekCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(items, items.size(), slice.hasNext(), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public TicketDTO getTicketById(Long id) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
@@ -59,6 +157,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByUser(Long userId) {
         return ticketRepository.findByUserId(userId).stream()
                 .map(this::convertToDTO)
@@ -66,6 +165,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByAssignedTo(Long staffId) {
         return ticketRepository.findByAssignedToId(staffId).stream()
                 .map(this::convertToDTO)
@@ -73,6 +173,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByStatus(String status) {
         return ticketRepository.findByStatus(status).stream()
                 .map(this::convertToDTO)
@@ -80,6 +181,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByCategory(Long categoryId) {
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Categoría", "id", categoryId);
@@ -90,6 +192,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByCourse(Long courseId) {
         return ticketRepository.findByCourseId(courseId).stream()
                 .map(this::convertToDTO)
@@ -97,9 +200,121 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public String getTicketETag(Long id) {
+        ChangeProbe probe = ticketRepository.probeById(id);
+        if (probe.getCount() == 0) {
+            throw new ResourceNotFoundException("Ticket", "id", id);
+        }
+        return ETagUtil.of("ticket:" + id, probe);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllTicketsETag() {
+        return ETagUtil.of("tickets", ticketRepository.probeAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsPageETag(Pageable pageable) {
+        // La respuesta depende de las filas de la página, de cuáles son y del total; no del resto de la tabla.
+        // Las altas y bajas cambian el total, y las que desplazan la página, sus ids
+        List<Long> ids = ticketRepository.findPageIds(withIdTiebreak(pageable)).getContent();
+        long total = ticketRepository.count();
+        if (ids.isEmpty()) {
+            return ETagUtil.of("tickets:" + pageable, total);
+        }
+        return ETagUtil.of("tickets:" + pageable + ":" + total + ":" + ids, ticketRepository.probeByIds(ids));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsByUserETag(Long userId) {
+        return ETagUtil.of("tickets:user:" + userId, ticketRepository.probeByUserId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsByAssignedToETag(Long staffId) {
+        return ETagUtil.of("tickets:assigned:" + staffId, ticketRepository.probeByAssignedToId(staffId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsByStatusETag(String status) {
+        return ETagUtil.of("tickets:status:" + status, ticketRepository.probeByStatus(status));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsByCategoryETag(Long categoryId) {
+        return ETagUtil.of("tickets:category:" + categoryId, ticketRepository.probeByCategoryId(categoryId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTicketsByCourseETag(Long courseId) {
+        return ETagUtil.of("tickets:course:" + courseId, ticketRepository.probeByCourseId(courseId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllTickets(Consumer<TicketDTO> consumer) {
+        streamTickets(ticketRepository.streamAll(), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTicketsByUser(Long userId, Consumer<TicketDTO> consumer) {
+        streamTickets(ticketRepository.streamByUserId(userId), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTicketsByAssignedTo(Long staffId, Consumer<TicketDTO> consumer) {
+        streamTickets(ticketRepository.streamByAssignedToId(staffId), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTicketsByStatus(String status, Consumer<TicketDTO> consumer) {
+        streamTickets(ticketRepository.streamByStatus(status), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTicketsByCategory(Long categoryId, Consumer<TicketDTO> consumer) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Categoría", "id", categoryId);
+        }
+        streamTickets(ticketRepository.streamByCategoryId(categoryId), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTicketsByCourse(Long courseId, Consumer<TicketDTO> consumer) {
+        streamTickets(ticketRepository.streamByCourseId(courseId), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<TicketDTO> searchTickets(String keyword, Pageable pageable) {
-        return ticketRepository.searchByKeyword(keyword, pageable)
-                .map(this::convertToDTO);
+        Page<SearchHit> hits = searchIndex.searchTickets(keyword, pageable);
+        Map<Long, Ticket> tickets = ticketRepository.findByIdIn(hits.map(SearchHit::getId).getContent()).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+
+        // Conservar el orden por relevancia del índice
+        List<TicketDTO> results = new ArrayList<>(hits.getNumberOfElements());
+        for (SearchHit hit : hits) {
+            Ticket ticket = tickets.get(hit.getId());
+            if (ticket != null) {
+                TicketDTO dto = convertToDTO(ticket);
+                dto.setHighlight(hit.getHighlight());
+                results.add(dto);
+            }
+        }
+        return new PageImpl<>(results, pageable, hits.getTotalElements());
     }
 
     @Override
@@ -111,45 +326,90 @@ public class TicketServiceImpl implements TicketService {
                     .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", ticketDTO.getCategoryId()));
         }
 
-        Ticket ticket = new Ticket();
-        ticket.setTitle(ticketDTO.getTitle());
-        ticket.setDescription(ticketDTO.getDescription());
-        ticket.setUserId(ticketDTO.getUserId());
-        ticket.setUserEmail(ticketDTO.getUserEmail());
-        ticket.setUserName(ticketDTO.getUserName());
-        ticket.setUserType(ticketDTO.getUserType());
-        ticket.setCourseId(ticketDTO.getCourseId());
-        ticket.setCourseName(ticketDTO.getCourseName());
-        ticket.setCategory(category);
-
-        // Valores por defecto
-        ticket.setStatus("NUEVO");
-        ticket.setPriority(ticketDTO.getPriority() != null ? ticketDTO.getPriority() : "MEDIA");
-
-        Ticket savedTicket = ticketRepository.save(ticket);
+        Ticket savedTicket = ticketRepository.save(newTicket(ticketDTO, category));
 
         // Si hay un mensaje inicial, añadirlo
         if (ticketDTO.getMessages() != null && !ticketDTO.getMessages().isEmpty()) {
-            MessageDTO initialMessageDTO = ticketDTO.getMessages().get(0);
-            Message initialMessage = new Message();
-            initialMessage.setTicket(savedTicket);
-            initialMessage.setContent(initialMessageDTO.getContent());
-            initialMessage.setSenderId(ticketDTO.getUserId());
-            initialMessage.setSenderName(ticketDTO.getUserName());
-            initialMessage.setSenderEmail(ticketDTO.getUserEmail());
-            initialMessage.setSenderType("USUARIO");
-            initialMessage.setIsInternalNote(false);
+            Message initialMessage = newInitialMessage(savedTicket, ticketDTO);
             messageRepository.save(initialMessage);
+
+            // Mantener los contadores desnormalizados y reflejarlos en la entidad devuelta
+            ticketRepository.registerMessage(savedTicket.getId(), "USUARIO", false, initialMessage.getCreatedAt());
+            savedTicket.setMessageCount(1);
+            savedTicket.setFirstUserMessageAt(initialMessage.getCreatedAt());
+            savedTicket.setLastActivityAt(initialMessage.getCreatedAt());
         }
 
+        searchIndex.indexTicket(savedTicket);
+        eventPublisher.publishEvent(TicketStatsChangedEvent.created(TicketStatsChangedEvent.Snapshot.of(savedTicket)));
         return convertToDTO(savedTicket);
     }
 
+    @Override
+    public TicketBatchResultDTO createTickets(List<TicketDTO> ticketDTOs) {
+        if (ticketDTOs == null || ticketDTOs.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos un ticket");
+        }
+        if (ticketDTOs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("No se pueden crear más de " + MAX_BATCH_SIZE + " tickets a la vez");
+        }
+
+        // Categorías de todo el lote en una sola consulta
+        Set<Long> categoryIds = ticketDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(TicketDTO::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, TicketCategory> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(TicketCategory::getId, Function.identity()));
+
+        TicketBatchItemResultDTO[] results = new TicketBatchItemResultDTO[ticketDTOs.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ticketDTOs.size(); i++) {
+            String error = validateBatchItem(ticketDTOs.get(i), categories);
+            if (error != null) {
+                results[i] = new TicketBatchItemResultDTO(i, "ERROR", null, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        // Cada tramo va en su propia transacción; si falla, se repite ticket a ticket para aislar el error
+        for (int from = 0; from < valid.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + BATCH_CHUNK_SIZE, valid.size()));
+            try {
+                insertBatchChunk(chunk, ticketDTOs, categories, results);
+            } catch (DataAccessException | PersistenceException e) {
+                log.warn("Falló un tramo de {} tickets del lote, se reintenta uno a uno: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    try {
+                        insertBatchChunk(List.of(index), ticketDTOs, categories, results);
+                    } catch (DataAccessException | PersistenceException itemError) {
+                        // El detalle incluye la sentencia SQL; solo va al log
+                        log.warn("No se pudo guardar el ticket {} del lote: {}", index,
+                                NestedExceptionUtils.getMostSpecificCause(itemError).getMessage());
+                        results[index] = new TicketBatchItemResultDTO(index, "ERROR", null,
+                                "No se pudo guardar el ticket: la base de datos rechazó los datos");
+                    }
+                }
+            }
+        }
+
+        int created = (int) Arrays.stream(results).filter(result -> result.getTicket() != null).count();
+        return new TicketBatchResultDTO(ticketDTOs.size(), created, ticketDTOs.size() - created, Arrays.asList(results));
+    }
+
     @Override
     @Transactional
     public TicketDTO updateTicket(Long id, TicketDTO ticketDTO) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
+
+        // Si el cliente envía la versión que leyó, rechazar la actualización si el ticket cambió desde entonces
+        if (ticketDTO.getVersion() != null && !ticketDTO.getVersion().equals(ticket.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Ticket.class, id);
+        }
 
         TicketCategory category = null;
         if (ticketDTO.getCategoryId() != null &&
@@ -166,63 +426,97 @@ public class TicketServiceImpl implements TicketService {
             ticket.setPriority(ticketDTO.getPriority());
         }
 
-        Ticket updatedTicket = ticketRepository.save(ticket);
+        // Con flush para que el evento lleve la versión que queda en la base de datos
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        searchIndex.indexTicket(updatedTicket);
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(updatedTicket)));
         return convertToDTO(updatedTicket);
     }
 
     @Override
     @Transactional
     public TicketDTO assignTicket(Long id, Long staffId) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
-
+        Ticket ticket = findTicketForUpdate(id);
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
+
+        // Solo gana la asignación si el ticket está libre o ya pertenece al mismo agente;
+        // si estaba en NUEVO pasa a ASIGNADO en la misma sentencia
+        LocalDateTime now = transitionTime();
+        if (ticketRepository.assignIfUnassigned(id, staffId, now) == 0) {
+            throw new TicketTransitionConflictException("El ticket ya está asignado a otro agente");
+        }
         ticket.setAssignedToId(staffId);
+        if ("NUEVO".equals(ticket.getStatus())) {
+            ticket.setStatus("ASIGNADO");
+        }
+
+        TicketDTO updated = convertToDTO(applied(ticket, now));
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(ticket)));
+        eventPublisher.publishEvent(TicketActivityEvent.assigned(id, staffId, ticket.getStatus()));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public TicketDTO reassignTicket(Long id, Long staffId) {
+        Ticket ticket = findTicketForUpdate(id);
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
 
-        // Si el estado es NUEVO, cambiarlo a ASIGNADO
+        LocalDateTime now = transitionTime();
+        ticketRepository.reassign(id, staffId, now);
+        ticket.setAssignedToId(staffId);
         if ("NUEVO".equals(ticket.getStatus())) {
             ticket.setStatus("ASIGNADO");
         }
 
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return convertToDTO(updatedTicket);
+        TicketDTO updated = convertToDTO(applied(ticket, now));
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(ticket)));
+        eventPublisher.publishEvent(TicketActivityEvent.assigned(id, staffId, ticket.getStatus()));
+        return updated;
     }
 
     @Override
     @Transactional
     public TicketDTO changeTicketStatus(Long id, String status) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
-
         // Validar que el estado sea válido
         if (!isValidStatus(status)) {
             throw new IllegalArgumentException("Estado de ticket inválido: " + status);
         }
+        Ticket ticket = findTicketForUpdate(id);
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
 
+        // Si el estado cambia a CERRADO, registrar la fecha de cierre (solo si no tenía una)
+        LocalDateTime now = transitionTime();
+        LocalDateTime closedAt = "CERRADO".equals(status) ? now : null;
+        ticketRepository.updateStatus(id, status, closedAt, now);
         ticket.setStatus(status);
-
-        // Si el estado cambia a CERRADO, registrar la fecha de cierre
-        if ("CERRADO".equals(status) && ticket.getClosedAt() == null) {
-            ticket.setClosedAt(LocalDateTime.now());
+        if (ticket.getClosedAt() == null) {
+            ticket.setClosedAt(closedAt);
         }
 
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return convertToDTO(updatedTicket);
+        TicketDTO updated = convertToDTO(applied(ticket, now));
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(ticket)));
+        eventPublisher.publishEvent(TicketActivityEvent.statusChanged(id, status));
+        return updated;
     }
 
     @Override
     @Transactional
     public TicketDTO changeTicketPriority(Long id, String priority) {
-        Ticket ticket = ticketRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
-
         // Validar que la prioridad sea válida
         if (!isValidPriority(priority)) {
             throw new IllegalArgumentException("Prioridad de ticket inválida: " + priority);
         }
+        Ticket ticket = findTicketForUpdate(id);
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
 
+        LocalDateTime now = transitionTime();
+        ticketRepository.updatePriority(id, priority, now);
         ticket.setPriority(priority);
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return convertToDTO(updatedTicket);
+
+        TicketDTO updated = convertToDTO(applied(ticket, now));
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(ticket)));
+        return updated;
     }
 
     @Override
@@ -241,10 +535,20 @@ public class TicketServiceImpl implements TicketService {
             throw new IllegalArgumentException("La calificación debe estar entre 1 y 5");
         }
 
+        TicketStatsChangedEvent.Snapshot before = TicketStatsChangedEvent.Snapshot.of(ticket);
+        Integer previousRating = ticket.getSatisfactionRating();
         ticket.setSatisfactionRating(rating);
         ticket.setFeedback(feedback);
 
-        Ticket updatedTicket = ticketRepository.save(ticket);
+        // Recalificar mantiene rated_at: los agregados por intervalo corrigen la suma en su intervalo original
+        if (ticket.getRatedAt() == null) {
+            ticket.setRatedAt(LocalDateTime.now());
+        } else if (previousRating != null && !previousRating.equals(rating)) {
+            rollupJob.ratingChanged(ticket, previousRating);
+        }
+
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        eventPublisher.publishEvent(TicketStatsChangedEvent.changed(before, TicketStatsChangedEvent.Snapshot.of(updatedTicket)));
         return convertToDTO(updatedTicket);
     }
 
@@ -256,62 +560,192 @@ public class TicketServiceImpl implements TicketService {
 
         // Primero eliminar los mensajes asociados para evitar problemas de clave foránea
         messageRepository.findByTicketId(id).forEach(messageRepository::delete);
+        ticketReadCursorRepository.deleteByTicketId(id);
 
         ticketRepository.delete(ticket);
+        searchIndex.removeTicket(id);
+        eventPublisher.publishEvent(TicketStatsChangedEvent.deleted(TicketStatsChangedEvent.Snapshot.of(ticket)));
     }
 
+    // Las estadísticas se sirven desde memoria; TicketStatsEngine las mantiene con TicketStatsChangedEvent
     @Override
-    public Map<String, Integer> getTicketStatusCounts() {
-        Map<String, Integer> statusCounts = new HashMap<>();
-        List<Object[]> results = ticketRepository.getTicketCountsByStatus();
+    public TicketStatsDTO getTicketStats() {
+        return statsEngine.getStats();
+    }
 
-        for (Object[] result : results) {
-            String status = (String) result[0];
-            Long count = (Long) result[1];
-            statusCounts.put(status, count.intValue());
-        }
+    @Override
+    public String getTicketStatsETag() {
+        return ETagUtil.of("tickets:stats", statsEngine.getVersionTag());
+    }
 
-        return statusCounts;
+    @Override
+    public Map<String, Integer> getTicketStatusCounts() {
+        return toIntegerCounts(statsEngine.getStats().getStatusCounts());
     }
 
     @Override
     public Map<String, Integer> getTicketPriorityCounts() {
-        Map<String, Integer> priorityCounts = new HashMap<>();
-        List<Object[]> results = ticketRepository.getTicketCountsByPriority();
-
-        for (Object[] result : results) {
-            String priority = (String) result[0];
-            Long count = (Long) result[1];
-            priorityCounts.put(priority, count.intValue());
-        }
-
-        return priorityCounts;
+        return toIntegerCounts(statsEngine.getStats().getPriorityCounts());
     }
 
     @Override
     public Map<String, Integer> getTicketCategoryCounts() {
-        Map<String, Integer> categoryCounts = new HashMap<>();
-        List<Object[]> results = ticketRepository.getTicketCountsByCategory();
-
-        for (Object[] result : results) {
-            String category = (String) result[0];
-            if (category != null) {
-                Long count = (Long) result[1];
-                categoryCounts.put(category, count.intValue());
-            }
-        }
-
-        return categoryCounts;
+        return toIntegerCounts(statsEngine.getStats().getCategoryCounts());
     }
 
     @Override
     public Double getAverageResolutionTime() {
-        return ticketRepository.getAverageResolutionTimeInDays();
+        return statsEngine.getStats().getAverageResolutionTimeInDays();
     }
 
     @Override
     public Double getAverageSatisfactionRating() {
-        return ticketRepository.getAverageSatisfactionRating();
+        return statsEngine.getStats().getAverageSatisfactionRating();
+    }
+
+    // Construye un ticket nuevo a partir del DTO, con los valores por defecto
+    private Ticket newTicket(TicketDTO ticketDTO, TicketCategory category) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle(ticketDTO.getTitle());
+        ticket.setDescription(ticketDTO.getDescription());
+        ticket.setUserId(ticketDTO.getUserId());
+        ticket.setUserEmail(ticketDTO.getUserEmail());
+        ticket.setUserName(ticketDTO.getUserName());
+        ticket.setUserType(ticketDTO.getUserType());
+        ticket.setCourseId(ticketDTO.getCourseId());
+        ticket.setCourseName(ticketDTO.getCourseName());
+        ticket.setCategory(category);
+
+        // Valores por defecto
+        ticket.setStatus("NUEVO");
+        ticket.setPriority(ticketDTO.getPriority() != null ? ticketDTO.getPriority() : "MEDIA");
+        return ticket;
+    }
+
+    // El mensaje inicial lo envía siempre el usuario que abre el ticket
+    private Message newInitialMessage(Ticket ticket, TicketDTO ticketDTO) {
+        Message initialMessage = new Message();
+        initialMessage.setTicket(ticket);
+        initialMessage.setContent(ticketDTO.getMessages().get(0).getContent());
+        initialMessage.setSenderId(ticketDTO.getUserId());
+        initialMessage.setSenderName(ticketDTO.getUserName());
+        initialMessage.setSenderEmail(ticketDTO.getUserEmail());
+        initialMessage.setSenderType("USUARIO");
+        initialMessage.setIsInternalNote(false);
+        return initialMessage;
+    }
+
+    // Devuelve el motivo por el que un ticket del lote no puede crearse, o null si es válido
+    private String validateBatchItem(TicketDTO ticketDTO, Map<Long, TicketCategory> categories) {
+        if (ticketDTO == null) {
+            return "El ticket no puede ser nulo";
+        }
+        Set<ConstraintViolation<TicketDTO>> violations = validator.validate(ticketDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (ticketDTO.getCategoryId() != null && !categories.containsKey(ticketDTO.getCategoryId())) {
+            return new ResourceNotFoundException("Categoría", "id", ticketDTO.getCategoryId()).getMessage();
+        }
+        if (ticketDTO.getMessages() != null && !ticketDTO.getMessages().isEmpty()) {
+            MessageDTO initialMessage = ticketDTO.getMessages().get(0);
+            if (initialMessage == null || initialMessage.getContent() == null || initialMessage.getContent().isBlank()) {
+                return "El contenido del mensaje es obligatorio";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserta un tramo del lote en una transacción. Los contadores desnormalizados se fijan antes de
+     * persistir (en lugar del UPDATE de registerMessage) y los ids salen de secuencias, de modo que
+     * Hibernate envía los tickets y los mensajes como dos INSERT agrupados en lotes JDBC.
+     */
+    private void insertBatchChunk(List<Integer> indexes, List<TicketDTO> ticketDTOs,
+                                  Map<Long, TicketCategory> categories, TicketBatchItemResultDTO[] results) {
+        List<Ticket> tickets = transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            List<Ticket> chunk = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                TicketDTO ticketDTO = ticketDTOs.get(index);
+                Ticket ticket = newTicket(ticketDTO, ticketDTO.getCategoryId() != null ? categories.get(ticketDTO.getCategoryId()) : null);
+                ticket.setCreatedAt(now);
+                Message initialMessage = null;
+                if (ticketDTO.getMessages() != null && !ticketDTO.getMessages().isEmpty()) {
+                    initialMessage = newInitialMessage(ticket, ticketDTO);
+                    initialMessage.setCreatedAt(now);
+                    ticket.setMessageCount(1);
+                    ticket.setFirstUserMessageAt(now);
+                    ticket.setLastActivityAt(now);
+                }
+                entityManager.persist(ticket);
+                if (initialMessage != null) {
+                    entityManager.persist(initialMessage);
+                }
+                chunk.add(ticket);
+            }
+            entityManager.flush();
+
+            for (Ticket ticket : chunk) {
+                searchIndex.indexTicket(ticket);
+                eventPublisher.publishEvent(TicketStatsChangedEvent.created(TicketStatsChangedEvent.Snapshot.of(ticket)));
+            }
+            return chunk;
+        });
+
+        for (int i = 0; i < indexes.size(); i++) {
+            results[indexes.get(i)] = new TicketBatchItemResultDTO(indexes.get(i), "CREADO", convertToDTO(tickets.get(i)), null);
+        }
+        // Con open-in-view el contexto de persistencia dura toda la petición; no acumular los tickets del lote
+        entityManager.clear();
+    }
+
+    // Entrega cada ticket al consumidor y lo desvincula del contexto de persistencia para mantener la memoria constante
+    private void streamTickets(Stream<Ticket> tickets, Consumer<TicketDTO> consumer) {
+        try (tickets) {
+            Iterator<Ticket> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                Ticket ticket = iterator.next();
+                consumer.accept(convertToDTO(ticket));
+                entityManager.detach(ticket);
+            }
+        }
+    }
+
+    // Estado del ticket antes de una actualización masiva, que no pasa por la entidad
+    private Ticket findTicketForUpdate(Long id) {
+        return ticketRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
+    }
+
+    // Desempata por id para que la página y los ids de su ETag sean siempre las mismas filas
+    private static Pageable withIdTiebreak(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+    private static Map<String, Integer> toIntegerCounts(Map<String, Long> counts) {
+        Map<String, Integer> result = new HashMap<>();
+        counts.forEach((key, count) -> result.put(key, count.intValue()));
+        return result;
+    }
+
+    // Con la precisión de la columna, para que el ticket devuelto coincida con el guardado
+    private static LocalDateTime transitionTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Refleja en el ticket leído (ya desvinculado por la actualización) lo que cambió la sentencia condicional;
+    // la fila sigue bloqueada, así que nadie más la ha cambiado
+    private static Ticket applied(Ticket ticket, LocalDateTime now) {
+        ticket.setUpdatedAt(now);
+        ticket.setVersion(ticket.getVersion() + 1);
+        return ticket;
     }
 
     // Método auxiliar para validar estados de ticket
@@ -332,7 +766,8 @@ public class TicketServiceImpl implements TicketService {
     }
 
     // Método para convertir una entidad Ticket a DTO
-    private TicketDTO convertToDTO(Ticket ticket) {
+    // Visible en el paquete para los benchmarks JMH de src/jmh/java
+    TicketDTO convertToDTO(Ticket ticket) {
         TicketDTO dto = new TicketDTO();
         dto.setId(ticket.getId());
         dto.setTitle(ticket.getTitle());
@@ -351,34 +786,21 @@ public class TicketServiceImpl implements TicketService {
         dto.setClosedAt(ticket.getClosedAt());
         dto.setSatisfactionRating(ticket.getSatisfactionRating());
         dto.setFeedback(ticket.getFeedback());
+        dto.setVersion(ticket.getVersion());
 
         if (ticket.getCategory() != null) {
             dto.setCategoryId(ticket.getCategory().getId());
             dto.setCategoryName(ticket.getCategory().getName());
         }
 
-        // Calcular tiempo de respuesta en minutos (si hay mensajes)
-        if (!ticket.getMessages().isEmpty() && ticket.getMessages().size() > 1) {
-            LocalDateTime firstUserMessage = null;
-            LocalDateTime firstStaffResponse = null;
-
-            for (Message message : ticket.getMessages()) {
-                if (firstUserMessage == null && "USUARIO".equals(message.getSenderType())) {
-                    firstUserMessage = message.getCreatedAt();
-                } else if (firstStaffResponse == null && "SOPORTE".equals(message.getSenderType()) && firstUserMessage != null) {
-                    firstStaffResponse = message.getCreatedAt();
-                    break;
-                }
-            }
-
-            if (firstUserMessage != null && firstStaffResponse != null) {
-                long responseTimeMinutes = java.time.Duration.between(firstUserMessage, firstStaffResponse).toMinutes();
-                dto.setResponseTimeMinutes((int) responseTimeMinutes);
-            }
+        // Tiempo de respuesta en minutos a partir de los contadores desnormalizados
+        if (ticket.getFirstUserMessageAt() != null && ticket.getFirstStaffResponseAt() != null) {
+            long responseTimeMinutes = java.time.Duration.between(
+                    ticket.getFirstUserMessageAt(), ticket.getFirstStaffResponseAt()).toMinutes();
+            dto.setResponseTimeMinutes((int) responseTimeMinutes);
         }
 
-        // Contar mensajes
-        dto.setMessageCount(ticket.getMessages().size());
+        dto.setMessageCount(ticket.getMessageCount() != null ? ticket.getMessageCount() : 0);
 
         return dto;
     }
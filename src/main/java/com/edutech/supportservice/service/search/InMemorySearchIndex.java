@@ -0,0 +1,281 @@
+package com.edutech.supportservice.service.search;
+
+import com.edutech.supportservice.config.ReadReplicaRouting;
+import com.edutech.supportservice.model.FAQ;
+import com.edutech.supportservice.model.Ticket;
+import com.edutech.supportservice.repository.FAQRepository;
+import com.edutech.supportservice.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria con ranking BM25. Pensado para desarrollo y pruebas sobre H2,
+ * donde no existe tsvector; se reconstruye completo al arrancar y se mantiene con cada escritura
+ * una vez confirmada la transacción.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "memory")
+public class InMemorySearchIndex implements SearchIndex {
+
+    // Las coincidencias en el título o la pregunta cuentan el doble que en el cuerpo
+    private static final int TITLE_WEIGHT = 2;
+
+    private final TicketRepository ticketRepository;
+    private final FAQRepository faqRepository;
+
+    private final Corpus tickets = new Corpus();
+    private final Corpus faqs = new Corpus();
+
+    @Autowired
+    public InMemorySearchIndex(TicketRepository ticketRepository, FAQRepository faqRepository) {
+        this.ticketRepository = ticketRepository;
+        this.faqRepository = faqRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        tickets.clear();
+        faqs.clear();
+        // Del primario: los cambios confirmados antes de la carga ya no llegan como eventos
+        ReadReplicaRouting.onPrimary(() -> {
+            ticketRepository.findAll().forEach(ticket -> tickets.put(ticket.getId(), toDocument(ticket)));
+            faqRepository.findAll().stream()
+                    .filter(faq -> Boolean.TRUE.equals(faq.getPublished()))
+                    .forEach(faq -> faqs.put(faq.getId(), toDocument(faq)));
+        });
+        log.info("Índice de búsqueda en memoria construido: {} tickets, {} FAQs", tickets.size(), faqs.size());
+    }
+
+    @Override
+    public Page<SearchHit> searchTickets(String query, Pageable pageable) {
+        return tickets.search(query, pageable);
+    }
+
+    @Override
+    public Page<SearchHit> searchFAQs(String query, Pageable pageable) {
+        return faqs.search(query, pageable);
+    }
+
+    @Override
+    public void indexTicket(Ticket ticket) {
+        Long id = ticket.getId();
+        Document document = toDocument(ticket);
+        afterCommit(() -> tickets.put(id, document));
+    }
+
+    @Override
+    public void removeTicket(Long ticketId) {
+        afterCommit(() -> tickets.remove(ticketId));
+    }
+
+    @Override
+    public void indexFAQ(FAQ faq) {
+        Long id = faq.getId();
+        if (!Boolean.TRUE.equals(faq.getPublished())) {
+            afterCommit(() -> faqs.remove(id));
+            return;
+        }
+        Document document = toDocument(faq);
+        afterCommit(() -> faqs.put(id, document));
+    }
+
+    @Override
+    public void removeFAQ(Long faqId) {
+        afterCommit(() -> faqs.remove(faqId));
+    }
+
+    private static Document toDocument(Ticket ticket) {
+        return new Document(ticket.getTitle(), ticket.getDescription());
+    }
+
+    private static Document toDocument(FAQ faq) {
+        String title = faq.getSearchKeywords() != null
+                ? faq.getQuestion() + " " + faq.getSearchKeywords()
+                : faq.getQuestion();
+        return new Document(title, faq.getAnswer());
+    }
+
+    // Aplica el cambio al confirmar la transacción para no indexar escrituras que acaben en rollback
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Document {
+        final String title;
+        final String body;
+        final Map<String, Integer> termFrequencies = new HashMap<>();
+        final int length;
+
+        Document(String title, String body) {
+            this.title = title;
+            this.body = body;
+            int total = 0;
+            for (String term : TextAnalyzer.terms(title)) {
+                termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+                total += TITLE_WEIGHT;
+            }
+            for (String term : TextAnalyzer.terms(body)) {
+                termFrequencies.merge(term, 1, Integer::sum);
+                total++;
+            }
+            this.length = total;
+        }
+
+        String highlight(Set<String> queryTerms) {
+            String snippet = TextAnalyzer.snippet(body, queryTerms);
+            return snippet != null ? snippet : TextAnalyzer.snippet(title, queryTerms);
+        }
+    }
+
+    private static final class Corpus {
+
+        private static final double K1 = 1.2;
+        private static final double B = 0.75;
+
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documents.clear();
+                totalLength = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void put(Long id, Document document) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                documents.put(id, document);
+                totalLength += document.length;
+                document.termFrequencies.forEach((term, tf) ->
+                        postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            totalLength -= previous.length;
+            for (String term : previous.termFrequencies.keySet()) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        Page<SearchHit> search(String query, Pageable pageable) {
+            Set<String> queryTerms = TextAnalyzer.queryTerms(query);
+            if (queryTerms.isEmpty()) {
+                return Page.empty(pageable);
+            }
+
+            List<Scored> scored = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                List<Map<Long, Integer>> lists = new ArrayList<>(queryTerms.size());
+                for (String term : queryTerms) {
+                    Map<Long, Integer> docs = postings.get(term);
+                    if (docs == null) {
+                        return Page.empty(pageable);
+                    }
+                    lists.add(docs);
+                }
+                // Se recorre la lista más corta y se exige que el documento contenga todos los términos
+                lists.sort(Comparator.comparingInt(Map::size));
+
+                int n = documents.size();
+                double averageLength = n > 0 ? (double) totalLength / n : 0;
+                candidates:
+                for (Map.Entry<Long, Integer> candidate : lists.get(0).entrySet()) {
+                    Long id = candidate.getKey();
+                    Document document = documents.get(id);
+                    double score = 0;
+                    for (Map<Long, Integer> docs : lists) {
+                        Integer tf = docs.get(id);
+                        if (tf == null) {
+                            continue candidates;
+                        }
+                        double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                        double norm = K1 * (1 - B + B * document.length / averageLength);
+                        score += idf * (tf * (K1 + 1)) / (tf + norm);
+                    }
+                    scored.add(new Scored(id, score, document));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            scored.sort(Comparator.comparingDouble(Scored::score).reversed().thenComparing(Scored::id, Comparator.reverseOrder()));
+            int from = (int) Math.min(pageable.getOffset(), scored.size());
+            int to = Math.min(from + pageable.getPageSize(), scored.size());
+            List<SearchHit> hits = new ArrayList<>(to - from);
+            for (Scored hit : scored.subList(from, to)) {
+                hits.add(new SearchHit(hit.id(), hit.score(), hit.document().highlight(queryTerms)));
+            }
+            return new PageImpl<>(hits, pageable, scored.size());
+        }
+    }
+
+    private record Scored(Long id, double score, Document document) {
+    }
+}
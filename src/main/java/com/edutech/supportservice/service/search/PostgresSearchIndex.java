@@ -0,0 +1,99 @@
+package com.edutech.supportservice.service.search;
+
+import com.edutech.supportservice.model.FAQ;
+import com.edutech.supportservice.model.Ticket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Búsqueda con tsvector de PostgreSQL. Cada tabla tiene una columna {@code search_vector}
+ * mantenida por un trigger y un índice GIN; la configuración {@code es_unaccent} combina
+ * unaccent con el stemmer español, de modo que "contrasena" encuentra "contraseñas".
+ * El esquema lo crean las migraciones V4 y V5 de Flyway; aquí solo se consulta.
+ * Las escrituras no necesitan avisar al índice: el trigger recalcula el vector en la misma transacción.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "postgres", matchIfMissing = true)
+public class PostgresSearchIndex implements SearchIndex {
+
+    private static final String HEADLINE_OPTIONS = "StartSel=" + TextAnalyzer.MARK_START
+            + ", StopSel=" + TextAnalyzer.MARK_END + ", MaxWords=35, MinWords=15, MaxFragments=1";
+
+    // El ranking y el LIMIT se resuelven en la subconsulta para calcular ts_headline solo sobre la página devuelta
+    private static final String TICKET_SEARCH_SQL =
+            "SELECT r.id, r.rank, ts_headline('es_unaccent', t.description, r.q, '" + HEADLINE_OPTIONS + "') AS highlight " +
+            "FROM (SELECT t.id, ts_rank_cd(t.search_vector, q) AS rank, q " +
+            "      FROM tickets t, websearch_to_tsquery('es_unaccent', ?) q " +
+            "      WHERE t.search_vector @@ q ORDER BY rank DESC, t.id DESC LIMIT ? OFFSET ?) r " +
+            "JOIN tickets t ON t.id = r.id ORDER BY r.rank DESC, r.id DESC";
+
+    private static final String TICKET_COUNT_SQL =
+            "SELECT count(*) FROM tickets WHERE search_vector @@ websearch_to_tsquery('es_unaccent', ?)";
+
+    private static final String FAQ_SEARCH_SQL =
+            "SELECT r.id, r.rank, ts_headline('es_unaccent', f.answer, r.q, '" + HEADLINE_OPTIONS + "') AS highlight " +
+            "FROM (SELECT f.id, ts_rank_cd(f.search_vector, q) AS rank, q " +
+            "      FROM faqs f, websearch_to_tsquery('es_unaccent', ?) q " +
+            "      WHERE f.published = true AND f.search_vector @@ q ORDER BY rank DESC, f.id DESC LIMIT ? OFFSET ?) r " +
+            "JOIN faqs f ON f.id = r.id ORDER BY r.rank DESC, r.id DESC";
+
+    private static final String FAQ_COUNT_SQL =
+            "SELECT count(*) FROM faqs WHERE published = true AND search_vector @@ websearch_to_tsquery('es_unaccent', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PostgresSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<SearchHit> searchTickets(String query, Pageable pageable) {
+        return search(TICKET_SEARCH_SQL, TICKET_COUNT_SQL, query, pageable);
+    }
+
+    @Override
+    public Page<SearchHit> searchFAQs(String query, Pageable pageable) {
+        return search(FAQ_SEARCH_SQL, FAQ_COUNT_SQL, query, pageable);
+    }
+
+    // El trigger mantiene search_vector; no hay nada que hacer desde la aplicación
+    @Override
+    public void indexTicket(Ticket ticket) {
+    }
+
+    @Override
+    public void removeTicket(Long ticketId) {
+    }
+
+    @Override
+    public void indexFAQ(FAQ faq) {
+    }
+
+    @Override
+    public void removeFAQ(Long faqId) {
+    }
+
+    private Page<SearchHit> search(String searchSql, String countSql, String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+
+        List<SearchHit> hits = jdbcTemplate.query(searchSql,
+                (rs, rowNum) -> new SearchHit(rs.getLong("id"), rs.getDouble("rank"),
+                        TextAnalyzer.toHtml(rs.getString("highlight"))),
+                query, pageable.getPageSize(), pageable.getOffset());
+
+        long total = hits.size() < pageable.getPageSize() && pageable.getOffset() == 0
+                ? hits.size()
+                : jdbcTemplate.queryForObject(countSql, Long.class, query);
+        return new PageImpl<>(hits, pageable, total);
+    }
+}
@@ -0,0 +1,14 @@
+package com.edutech.supportservice.service.search;
+
+import lombok.Value;
+
+/**
+ * Resultado de una búsqueda: id del documento, puntuación de relevancia y
+ * fragmento del texto con los términos encontrados marcados con {@code <mark>}.
+ */
+@Value
+public class SearchHit {
+    Long id;
+    double score;
+    String highlight;
+}
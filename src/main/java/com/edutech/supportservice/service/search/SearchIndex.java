@@ -0,0 +1,33 @@
+package com.edutech.supportservice.service.search;
+
+import com.edutech.supportservice.model.FAQ;
+import com.edutech.supportservice.model.Ticket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Índice de búsqueda de texto completo para tickets y FAQs.
+ * La implementación se elige con la propiedad {@code app.search.backend}:
+ * {@code postgres} (tsvector + GIN, por defecto) o {@code memory} (índice invertido en proceso).
+ */
+public interface SearchIndex {
+
+    /**
+     * Busca tickets cuyo título o descripción contengan todos los términos de la consulta,
+     * ordenados por relevancia.
+     */
+    Page<SearchHit> searchTickets(String query, Pageable pageable);
+
+    /**
+     * Busca FAQs publicadas por pregunta, respuesta y palabras clave, ordenadas por relevancia.
+     */
+    Page<SearchHit> searchFAQs(String query, Pageable pageable);
+
+    void indexTicket(Ticket ticket);
+
+    void removeTicket(Long ticketId);
+
+    void indexFAQ(FAQ faq);
+
+    void removeFAQ(Long faqId);
+}
@@ -0,0 +1,154 @@
+package com.edutech.supportservice.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Análisis de texto en español compartido por los índices de búsqueda: separa en palabras,
+ * pasa a minúsculas, elimina acentos ("contraseña" y "contrasena" son el mismo término),
+ * descarta palabras vacías y reduce plurales y vocal final.
+ */
+final class TextAnalyzer {
+
+    // Marcadores de uso privado de Unicode que delimitan los términos resaltados antes de escapar el HTML
+    static final char MARK_START = '\uE000';
+    static final char MARK_END = '\uE001';
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int SNIPPET_LEAD = 60;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "algo", "como", "con", "de", "del", "donde", "el", "ella", "en", "entre", "es", "esta",
+            "este", "esto", "ha", "hay", "la", "las", "le", "les", "lo", "los", "me", "mi", "mis", "muy", "no",
+            "o", "para", "pero", "por", "que", "se", "si", "sin", "sobre", "su", "sus", "te", "tu", "un", "una",
+            "unas", "unos", "y", "ya", "yo");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Términos normalizados de un texto, en orden y con repeticiones.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Términos distintos de una consulta.
+     */
+    static Set<String> queryTerms(String query) {
+        return new LinkedHashSet<>(terms(query));
+    }
+
+    /**
+     * Normaliza una palabra; devuelve {@code null} si es una palabra vacía.
+     */
+    static String normalize(String word) {
+        String term = DIACRITICS.matcher(Normalizer.normalize(word.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("");
+        if (STOPWORDS.contains(term)) {
+            return null;
+        }
+        if (term.length() > 4 && term.endsWith("es")) {
+            term = term.substring(0, term.length() - 2);
+        } else if (term.length() > 3 && term.endsWith("s")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        if (term.length() > 3 && (term.endsWith("a") || term.endsWith("e") || term.endsWith("o"))) {
+            term = term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    /**
+     * Fragmento del texto alrededor de la primera coincidencia con los términos marcados,
+     * o {@code null} si el texto no contiene ninguno.
+     */
+    static String snippet(String text, Set<String> queryTerms) {
+        if (text == null || queryTerms.isEmpty()) {
+            return null;
+        }
+        Matcher matcher = WORD.matcher(text);
+        int first = -1;
+        while (matcher.find()) {
+            if (queryTerms.contains(normalize(matcher.group()))) {
+                first = matcher.start();
+                break;
+            }
+        }
+        if (first < 0) {
+            return null;
+        }
+
+        int start = Math.max(0, first - SNIPPET_LEAD);
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+
+        String window = text.substring(start, end);
+        StringBuilder marked = new StringBuilder(window.length() + 16);
+        if (start > 0) {
+            marked.append("… ");
+        }
+        Matcher words = WORD.matcher(window);
+        int last = 0;
+        while (words.find()) {
+            if (queryTerms.contains(normalize(words.group()))) {
+                marked.append(window, last, words.start())
+                        .append(MARK_START).append(words.group()).append(MARK_END);
+                last = words.end();
+            }
+        }
+        marked.append(window, last, window.length());
+        if (end < text.length()) {
+            marked.append(" …");
+        }
+        return toHtml(marked.toString());
+    }
+
+    /**
+     * Escapa el HTML del fragmento y sustituye los marcadores por etiquetas {@code <mark>}.
+     */
+    static String toHtml(String marked) {
+        if (marked == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(marked.length() + 16);
+        for (int i = 0; i < marked.length(); i++) {
+            char c = marked.charAt(i);
+            switch (c) {
+                case MARK_START -> html.append("<mark>");
+                case MARK_END -> html.append("</mark>");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '&' -> html.append("&amp;");
+                case '"' -> html.append("&quot;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+}
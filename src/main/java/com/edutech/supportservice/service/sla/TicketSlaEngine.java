@@ -0,0 +1,476 @@
+package com.edutech.supportservice.service.sla;
+
+import com.edutech.supportservice.config.ReadReplicaRouting;
+import com.edutech.supportservice.dto.TicketSlaStatusDTO;
+import com.edutech.supportservice.event.TicketCategorySlaChangedEvent;
+import com.edutech.supportservice.event.TicketSlaEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.repository.TicketRepository;
+import com.edutech.supportservice.util.AuditLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Seguimiento en memoria del plazo de resolución (SLA) de los tickets abiertos.
+ * <p>
+ * El plazo es {@code createdAt + expectedResolutionTimeHours} de la categoría multiplicado por
+ * un factor de la prioridad; sin tiempo esperado se usa {@code default-resolution-hours}. Los
+ * tickets se ordenan por instante de aviso (cuando queda {@code near-breach-fraction} del tiempo)
+ * y por plazo, de modo que cada comprobación solo mira la cabeza de las colas y el listado de
+ * tickets en riesgo recorre únicamente los k primeros. Los cambios de los tickets llegan con
+ * {@link TicketStatsChangedEvent} al confirmarse; RESUELTO y CERRADO dejan de contar y un ticket
+ * reabierto vuelve con su plazo original. Al arrancar se reconstruye con una sola consulta en
+ * streaming de los tickets abiertos, sin repetir los avisos que ya hubieran vencido, y después se
+ * reconstruye cada {@code rebuild-interval-ms} para incorporar los tickets que han cambiado en otras
+ * instancias, que no publican sus eventos en esta.
+ * <p>
+ * Todas las instancias siguen los mismos plazos, pero cada aviso (auditoría, métrica y
+ * {@link TicketSlaEvent}) lo emite solo la que lo reclama en la base de datos para ese plazo.
+ */
+@Slf4j
+@Component
+public class TicketSlaEngine {
+
+    private static final Set<String> FINISHED_STATUSES = Set.of("RESUELTO", "CERRADO");
+    // Parte del tiempo esperado de la categoría que se concede según la prioridad
+    private static final Map<String, Double> PRIORITY_FACTORS = Map.of(
+            "CRÍTICA", 0.25,
+            "ALTA", 0.5,
+            "MEDIA", 1.0,
+            "BAJA", 1.5);
+    private static final int MAX_AT_RISK = 500;
+
+    private final TicketRepository ticketRepository;
+    private final TicketCategoryRepository categoryRepository;
+    private final AuditLogger auditLogger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final Duration defaultResolutionTime;
+    private final double nearBreachFraction;
+    private final Counter nearBreaches;
+    private final Counter breaches;
+
+    // Protege los temporizadores; las secciones críticas no hacen E/S
+    private final ReentrantLock lock = new ReentrantLock();
+    // Evita dos reconstrucciones simultáneas
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Timers timers;
+    // Cambios recibidos mientras se leen los tickets abiertos; se reaplican sobre el resultado
+    private List<Consumer<Timers>> pendingDuringRebuild;
+    // Tiempo base de cada categoría; se consulta a la base de datos la primera vez que aparece
+    private final Map<Long, Duration> categoryResolutionTimes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TicketSlaEngine(TicketRepository ticketRepository,
+                           TicketCategoryRepository categoryRepository,
+                           AuditLogger auditLogger,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.tickets.sla.default-resolution-hours:72}") long defaultResolutionHours,
+                           @Value("${app.tickets.sla.near-breach-fraction:0.2}") double nearBreachFraction) {
+        this.ticketRepository = ticketRepository;
+        this.categoryRepository = categoryRepository;
+        this.auditLogger = auditLogger;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.defaultResolutionTime = Duration.ofHours(defaultResolutionHours);
+        this.nearBreachFraction = nearBreachFraction;
+
+        this.nearBreaches = Counter.builder("tickets.sla.near-breaches")
+                .description("Tickets que han entrado en la ventana de riesgo de su plazo de resolución")
+                .register(meterRegistry);
+        this.breaches = Counter.builder("tickets.sla.breaches")
+                .description("Tickets que han superado su plazo de resolución")
+                .register(meterRegistry);
+        Gauge.builder("tickets.sla.tracked", this, TicketSlaEngine::trackedCount)
+                .description("Tickets abiertos con plazo de resolución en seguimiento")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketStatsChanged(TicketStatsChangedEvent event) {
+        TicketStatsChangedEvent.Snapshot after = event.getAfter();
+        if (after == null || FINISHED_STATUSES.contains(after.getStatus())) {
+            Long ticketId = after != null ? after.getTicketId() : event.getBefore().getTicketId();
+            apply(timers -> timers.untrack(ticketId));
+            return;
+        }
+
+        Duration resolutionTime = resolutionTime(after.getCategoryId());
+        apply(timers -> timers.track(after.getTicketId(), after.getPriority(), after.getCategoryId(),
+                after.getCreatedAt(), resolutionTime));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCategorySlaChanged(TicketCategorySlaChangedEvent event) {
+        Duration resolutionTime = toResolutionTime(event.getExpectedResolutionTimeHours());
+        categoryResolutionTimes.put(event.getCategoryId(), resolutionTime);
+        apply(timers -> timers.retime(event.getCategoryId(), resolutionTime));
+    }
+
+    /**
+     * Tickets abiertos en riesgo o con el plazo vencido, del plazo más antiguo al más reciente
+     */
+    public List<TicketSlaStatusDTO> getAtRisk(int limit) {
+        ensureLoaded();
+        LocalDateTime now = LocalDateTime.now();
+        publish(advance(now));
+
+        List<TicketSlaStatusDTO> result = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Entry> iterator = timers.atRisk.iterator();
+            int max = Math.min(Math.max(limit, 1), MAX_AT_RISK);
+            while (iterator.hasNext() && result.size() < max) {
+                Entry entry = iterator.next();
+                result.add(new TicketSlaStatusDTO(entry.ticketId, entry.priority, entry.categoryId, entry.createdAt,
+                        entry.deadline, Duration.between(now, entry.deadline).toMinutes(), entry.state == State.BREACHED));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.sla.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.tickets.sla.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            log.warn("No se pudo reconstruir el SLA de los tickets, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.sla.check-interval-ms:30000}",
+            initialDelayString = "${app.tickets.sla.check-interval-ms:30000}")
+    public void check() {
+        try {
+            ensureLoaded();
+            publish(advance(LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo comprobar el SLA de los tickets, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a cargar los tickets abiertos de la base de datos y sustituye los temporizadores.
+     * Los tickets con el mismo plazo conservan sus avisos; en la primera carga los avisos ya
+     * vencidos no se emiten.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.lock();
+            try {
+                pendingDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            Timers fresh = new Timers();
+            try {
+                // Del primario: los eventos recibidos antes de la carga se dan por incluidos en ella
+                ReadReplicaRouting.onPrimary(() -> readTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> open = ticketRepository.streamOpenForSla()) {
+                        open.forEach(row -> {
+                            Long categoryId = (Long) row[2];
+                            Duration resolutionTime = toResolutionTime((Integer) row[3]);
+                            if (categoryId != null) {
+                                categoryResolutionTimes.put(categoryId, resolutionTime);
+                            }
+                            fresh.track((Long) row[0], (String) row[1], categoryId, (LocalDateTime) row[4], resolutionTime);
+                        });
+                    }
+                }));
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    pendingDuringRebuild = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            List<TicketSlaEvent> due;
+            boolean firstLoad;
+            lock.lock();
+            try {
+                pendingDuringRebuild.forEach(change -> change.accept(fresh));
+                pendingDuringRebuild = null;
+                firstLoad = timers == null;
+                if (!firstLoad) {
+                    fresh.inheritStates(timers);
+                }
+                due = fresh.advance(LocalDateTime.now());
+                timers = fresh;
+            } finally {
+                lock.unlock();
+            }
+            if (firstLoad) {
+                log.info("SLA de tickets reconstruido: {} tickets abiertos, {} en riesgo o vencidos",
+                        fresh.entries.size(), fresh.atRisk.size());
+            } else {
+                publish(due);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.lock();
+        try {
+            if (timers != null) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        rebuild();
+    }
+
+    private void apply(Consumer<Timers> change) {
+        lock.lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            // Antes de la primera carga no hay nada que actualizar: la reconstrucción ya verá el cambio
+            if (timers != null) {
+                change.accept(timers);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<TicketSlaEvent> advance(LocalDateTime now) {
+        lock.lock();
+        try {
+            return timers.advance(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(List<TicketSlaEvent> events) {
+        for (TicketSlaEvent event : events) {
+            if (!claim(event)) {
+                continue;
+            }
+            if (event.getType() == TicketSlaEvent.Type.BREACH) {
+                breaches.increment();
+                auditLogger.logSlaEvent("SLA INCUMPLIDO", event.getTicketId(),
+                        "prioridad " + event.getPriority() + ", plazo " + event.getDeadline());
+            } else {
+                nearBreaches.increment();
+                auditLogger.logSlaEvent("SLA EN RIESGO", event.getTicketId(),
+                        "prioridad " + event.getPriority() + ", plazo " + event.getDeadline());
+            }
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // Otra instancia ya emitió el aviso para este plazo si no se actualiza ninguna fila
+    private boolean claim(TicketSlaEvent event) {
+        try {
+            int claimed = event.getType() == TicketSlaEvent.Type.BREACH
+                    ? ticketRepository.claimSlaBreach(event.getTicketId(), event.getDeadline())
+                    : ticketRepository.claimSlaWarning(event.getTicketId(), event.getDeadline());
+            return claimed == 1;
+        } catch (DataAccessException e) {
+            log.warn("No se pudo registrar el aviso de SLA del ticket {}: {}", event.getTicketId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Duration resolutionTime(Long categoryId) {
+        if (categoryId == null) {
+            return defaultResolutionTime;
+        }
+        Duration cached = categoryResolutionTimes.get(categoryId);
+        if (cached != null) {
+            return cached;
+        }
+        Duration resolutionTime = toResolutionTime(categoryRepository.findById(categoryId)
+                .map(TicketCategory::getExpectedResolutionTimeHours)
+                .orElse(null));
+        categoryResolutionTimes.put(categoryId, resolutionTime);
+        return resolutionTime;
+    }
+
+    private Duration toResolutionTime(Integer expectedHours) {
+        return expectedHours != null && expectedHours > 0 ? Duration.ofHours(expectedHours) : defaultResolutionTime;
+    }
+
+    private double trackedCount() {
+        lock.lock();
+        try {
+            return timers != null ? timers.entries.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum State {
+        ON_TRACK,
+        AT_RISK,
+        BREACHED
+    }
+
+    private static final class Entry {
+        private final Long ticketId;
+        private final String priority;
+        private final Long categoryId;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime deadline;
+        private final LocalDateTime nearBreachAt;
+        private State state = State.ON_TRACK;
+
+        Entry(Long ticketId, String priority, Long categoryId, LocalDateTime createdAt,
+              LocalDateTime deadline, LocalDateTime nearBreachAt) {
+            this.ticketId = ticketId;
+            this.priority = priority;
+            this.categoryId = categoryId;
+            this.createdAt = createdAt;
+            this.deadline = deadline;
+            this.nearBreachAt = nearBreachAt;
+        }
+    }
+
+    // Colas de temporizadores: cada ticket abierto está en onTrack o en atRisk (y en awaitingBreach si aún no ha vencido)
+    private final class Timers {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> onTrack = new TreeSet<>(
+                Comparator.comparing((Entry entry) -> entry.nearBreachAt).thenComparing(entry -> entry.ticketId));
+        private final TreeSet<Entry> awaitingBreach = new TreeSet<>(
+                Comparator.comparing((Entry entry) -> entry.deadline).thenComparing(entry -> entry.ticketId));
+        private final TreeSet<Entry> atRisk = new TreeSet<>(
+                Comparator.comparing((Entry entry) -> entry.deadline).thenComparing(entry -> entry.ticketId));
+
+        void track(Long ticketId, String priority, Long categoryId, LocalDateTime createdAt, Duration resolutionTime) {
+            Duration allowed = Duration.ofSeconds(Math.round(
+                    resolutionTime.getSeconds() * PRIORITY_FACTORS.getOrDefault(priority, 1.0)));
+            LocalDateTime deadline = createdAt.plus(allowed);
+            LocalDateTime nearBreachAt = deadline.minusSeconds(Math.round(allowed.getSeconds() * nearBreachFraction));
+
+            Entry previous = entries.get(ticketId);
+            Entry entry = new Entry(ticketId, priority, categoryId, createdAt, deadline, nearBreachAt);
+            // Con el mismo plazo se conserva el estado para no repetir avisos
+            if (previous != null && previous.deadline.equals(deadline) && previous.nearBreachAt.equals(nearBreachAt)) {
+                entry.state = previous.state;
+            }
+            untrack(ticketId);
+            entries.put(ticketId, entry);
+            place(entry);
+        }
+
+        // Tras reconstruir: conserva el estado de los tickets cuyo plazo no ha cambiado para no repetir avisos
+        void inheritStates(Timers previous) {
+            for (Entry entry : List.copyOf(onTrack)) {
+                Entry old = previous.entries.get(entry.ticketId);
+                if (old != null && old.state != State.ON_TRACK
+                        && old.deadline.equals(entry.deadline) && old.nearBreachAt.equals(entry.nearBreachAt)) {
+                    onTrack.remove(entry);
+                    entry.state = old.state;
+                    place(entry);
+                }
+            }
+        }
+
+        private void place(Entry entry) {
+            if (entry.state == State.ON_TRACK) {
+                onTrack.add(entry);
+            } else {
+                atRisk.add(entry);
+                if (entry.state == State.AT_RISK) {
+                    awaitingBreach.add(entry);
+                }
+            }
+        }
+
+        void untrack(Long ticketId) {
+            Entry entry = entries.remove(ticketId);
+            if (entry != null) {
+                onTrack.remove(entry);
+                awaitingBreach.remove(entry);
+                atRisk.remove(entry);
+            }
+        }
+
+        void retime(Long categoryId, Duration resolutionTime) {
+            List<Entry> affected = entries.values().stream()
+                    .filter(entry -> categoryId.equals(entry.categoryId))
+                    .toList();
+            affected.forEach(entry -> track(entry.ticketId, entry.priority, entry.categoryId, entry.createdAt, resolutionTime));
+        }
+
+        // Mueve los tickets cuyos temporizadores han vencido y devuelve los avisos a emitir
+        List<TicketSlaEvent> advance(LocalDateTime now) {
+            List<TicketSlaEvent> fired = new ArrayList<>();
+            while (!onTrack.isEmpty() && !onTrack.first().nearBreachAt.isAfter(now)) {
+                Entry entry = onTrack.pollFirst();
+                atRisk.add(entry);
+                if (entry.deadline.isAfter(now)) {
+                    entry.state = State.AT_RISK;
+                    awaitingBreach.add(entry);
+                    fired.add(toEvent(TicketSlaEvent.Type.NEAR_BREACH, entry));
+                } else {
+                    entry.state = State.BREACHED;
+                    fired.add(toEvent(TicketSlaEvent.Type.BREACH, entry));
+                }
+            }
+            while (!awaitingBreach.isEmpty() && !awaitingBreach.first().deadline.isAfter(now)) {
+                Entry entry = awaitingBreach.pollFirst();
+                entry.state = State.BREACHED;
+                fired.add(toEvent(TicketSlaEvent.Type.BREACH, entry));
+            }
+            return fired;
+        }
+
+        private TicketSlaEvent toEvent(TicketSlaEvent.Type type, Entry entry) {
+            return new TicketSlaEvent(type, entry.ticketId, entry.priority, entry.categoryId, entry.deadline);
+        }
+    }
+}
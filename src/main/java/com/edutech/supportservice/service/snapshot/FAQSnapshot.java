@@ -0,0 +1,111 @@
+package com.edutech.supportservice.service.snapshot;
+
+import com.edutech.supportservice.dto.FAQDTO;
+import com.edutech.supportservice.util.ETagUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Foto inmutable del catálogo público de FAQs: las FAQs publicadas ordenadas por
+ * display_order, agrupadas por categoría y ya serializadas a JSON con su ETag.
+ * Se reconstruye completa ante cualquier cambio y se sustituye de forma atómica;
+ * los DTO que contiene son compartidos entre peticiones y no deben modificarse.
+ */
+@Getter
+public final class FAQSnapshot {
+
+    private static final byte[] EMPTY_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Respuesta para categorías existentes sin FAQs publicadas.
+     */
+    public static final Payload EMPTY_PAYLOAD = new Payload(EMPTY_JSON, etagOf(EMPTY_JSON));
+
+    private final long version;
+    private final List<FAQDTO> published;
+    private final Set<Long> publishedIds;
+    private final Map<Long, List<FAQDTO>> byCategory;
+    private final Payload publishedPayload;
+    private final Map<Long, Payload> categoryPayloads;
+
+    private FAQSnapshot(long version,
+                        List<FAQDTO> published,
+                        Map<Long, List<FAQDTO>> byCategory,
+                        Payload publishedPayload,
+                        Map<Long, Payload> categoryPayloads) {
+        this.version = version;
+        this.published = published;
+        this.publishedIds = published.stream().map(FAQDTO::getId).collect(Collectors.toUnmodifiableSet());
+        this.byCategory = byCategory;
+        this.publishedPayload = publishedPayload;
+        this.categoryPayloads = categoryPayloads;
+    }
+
+    /**
+     * Construye la foto a partir de las FAQs publicadas, ya ordenadas por display_order.
+     */
+    public static FAQSnapshot build(long version, List<FAQDTO> published, ObjectMapper objectMapper) {
+        Map<Long, List<FAQDTO>> grouped = new LinkedHashMap<>();
+        for (FAQDTO faq : published) {
+            if (faq.getCategoryId() != null) {
+                grouped.computeIfAbsent(faq.getCategoryId(), id -> new ArrayList<>()).add(faq);
+            }
+        }
+
+        Map<Long, List<FAQDTO>> byCategory = new LinkedHashMap<>();
+        Map<Long, Payload> categoryPayloads = new LinkedHashMap<>();
+        grouped.forEach((categoryId, faqs) -> {
+            List<FAQDTO> list = List.copyOf(faqs);
+            byCategory.put(categoryId, list);
+            categoryPayloads.put(categoryId, payload(list, objectMapper));
+        });
+
+        List<FAQDTO> all = List.copyOf(published);
+        return new FAQSnapshot(version, all, Map.copyOf(byCategory), payload(all, objectMapper), Map.copyOf(categoryPayloads));
+    }
+
+    public boolean isPublished(Long faqId) {
+        return publishedIds.contains(faqId);
+    }
+
+    public List<FAQDTO> getByCategory(Long categoryId) {
+        return byCategory.get(categoryId);
+    }
+
+    public Payload getCategoryPayload(Long categoryId) {
+        return categoryPayloads.get(categoryId);
+    }
+
+    private static Payload payload(List<FAQDTO> faqs, ObjectMapper objectMapper) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(faqs);
+            return new Payload(json, etagOf(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de FAQs", e);
+        }
+    }
+
+    // El ETag depende solo del contenido, por lo que coincide entre instancias y reinicios
+    private static String etagOf(byte[] json) {
+        return ETagUtil.ofContent(json);
+    }
+
+    /**
+     * Cuerpo JSON ya serializado y su ETag.
+     */
+    @Value
+    public static class Payload {
+        byte[] json;
+        String etag;
+    }
+}
@@ -0,0 +1,453 @@
+package com.edutech.supportservice.service.stats;
+
+import com.edutech.supportservice.config.ReadReplicaRouting;
+import com.edutech.supportservice.dto.TicketLatencyGroupDTO;
+import com.edutech.supportservice.dto.TicketLatencyPercentilesDTO;
+import com.edutech.supportservice.event.TicketFirstResponseEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.model.TicketLatencySketch;
+import com.edutech.supportservice.model.TicketRollup;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.repository.TicketLatencySketchRepository;
+import com.edutech.supportservice.repository.TicketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+
+/**
+ * Percentiles de tiempo de resolución (created_at → closed_at) y de primera respuesta
+ * (primer mensaje del usuario → primera respuesta de soporte), globales, por prioridad y
+ * por categoría.
+ * <p>
+ * Cada grupo es un HdrHistogram en segundos con dos cifras significativas. Las muestras se
+ * registran al confirmarse el cierre o la primera respuesta y se acumulan en histogramas
+ * pendientes que se suman periódicamente a los guardados en {@code ticket_latency_sketches}.
+ * Como los histogramas se pueden combinar, varias instancias escriben sobre las mismas filas
+ * sin coordinarse más que con la versión optimista. El histórico de tickets solo se recorre
+ * una vez, cuando la tabla está vacía. Si el proceso termina sin el guardado final se pierden
+ * como mucho las muestras de un intervalo de guardado.
+ */
+@Slf4j
+@Component
+public class TicketLatencySketches {
+
+    private static final long MAX_TRACKABLE_SECONDS = TimeUnit.DAYS.toSeconds(730);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final double SECONDS_PER_MINUTE = 60.0;
+    // Margen al buscar filas modificadas por otras instancias; releer una fila no altera el resultado
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(5);
+
+    private static final Map<String, String> DIMENSIONS = Map.of(
+            "none", TicketRollup.DIMENSION_TOTAL,
+            "priority", TicketRollup.DIMENSION_PRIORITY,
+            "category", TicketRollup.DIMENSION_CATEGORY);
+
+    private final TicketLatencySketchRepository sketchRepository;
+    private final TicketRepository ticketRepository;
+    private final TicketCategoryRepository categoryRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readTransaction;
+
+    // Protege el estado en memoria; las secciones críticas no hacen E/S
+    private final ReentrantLock lock = new ReentrantLock();
+    // Serializa la carga y los guardados
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Lo guardado en la base de datos más las muestras pendientes de esta instancia
+    private final Map<Key, Histogram> merged = new HashMap<>();
+    // Muestras de esta instancia que aún no se han sumado a la base de datos
+    private Map<Key, Histogram> pending = new HashMap<>();
+    private boolean loaded;
+    // Mientras se construye desde el histórico, las muestras hasta este instante ya las incluye el recorrido
+    private LocalDateTime buildCutoff;
+    private LocalDateTime lastSync;
+    private long generation;
+    private final long instanceId = System.currentTimeMillis();
+
+    @Autowired
+    public TicketLatencySketches(TicketLatencySketchRepository sketchRepository,
+                                 TicketRepository ticketRepository,
+                                 TicketCategoryRepository categoryRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.ticketRepository = ticketRepository;
+        this.categoryRepository = categoryRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketStatsChanged(TicketStatsChangedEvent event) {
+        TicketStatsChangedEvent.Snapshot before = event.getBefore();
+        TicketStatsChangedEvent.Snapshot after = event.getAfter();
+        // closed_at solo se fija la primera vez que el ticket se cierra
+        if (before != null && after != null && before.getClosedAt() == null
+                && after.getClosedAt() != null && after.getCreatedAt() != null) {
+            record(TicketLatencySketch.METRIC_RESOLUTION, after.getPriority(), after.getCategoryId(),
+                    after.getCreatedAt(), after.getClosedAt());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFirstResponse(TicketFirstResponseEvent event) {
+        record(TicketLatencySketch.METRIC_FIRST_RESPONSE, event.getPriority(), event.getCategoryId(),
+                event.getFirstUserMessageAt(), event.getRespondedAt());
+    }
+
+    /**
+     * Percentiles de una métrica ({@link TicketLatencySketch#METRIC_RESOLUTION} o
+     * {@link TicketLatencySketch#METRIC_FIRST_RESPONSE}) agrupados por none, priority o category
+     */
+    public TicketLatencyPercentilesDTO getPercentiles(String metric, String groupBy) {
+        String groupKey = groupBy.toLowerCase(Locale.ROOT);
+        String dimension = DIMENSIONS.get(groupKey);
+        if (dimension == null) {
+            throw new IllegalArgumentException("Agrupación no válida: " + groupBy + " (none, priority o category)");
+        }
+        ensureLoaded();
+
+        List<TicketLatencyGroupDTO> groups = new ArrayList<>();
+        lock.lock();
+        try {
+            merged.forEach((key, histogram) -> {
+                if (key.metric().equals(metric) && key.dimension().equals(dimension) && histogram.getTotalCount() > 0) {
+                    groups.add(toGroup(key, histogram));
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        groups.sort(Comparator.comparing(TicketLatencyGroupDTO::getGroup, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        if (TicketRollup.DIMENSION_CATEGORY.equals(dimension)) {
+            Map<String, String> names = categoryNames(groups);
+            groups.forEach(group -> group.setGroupName(group.getGroup() != null ? names.get(group.getGroup()) : null));
+        }
+        return new TicketLatencyPercentilesDTO(metric, groupKey, groups);
+    }
+
+    public String getVersionTag() {
+        ensureLoaded();
+        lock.lock();
+        try {
+            return instanceId + ":" + generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.sketches.flush-interval-ms:30000}",
+            initialDelayString = "${app.tickets.sketches.flush-interval-ms:30000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron guardar los percentiles de tickets, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron guardar los percentiles de tickets al detener el servicio: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Suma las muestras pendientes a los histogramas guardados y recoge los cambios de otras instancias
+     */
+    public void flush() {
+        syncLock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Map<Key, Histogram> batch;
+            lock.lock();
+            try {
+                batch = pending;
+                pending = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+
+            LocalDateTime syncStart = LocalDateTime.now();
+            Map<Key, Histogram> stored;
+            try {
+                stored = transaction.execute(status -> persist(batch, syncStart));
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    batch.forEach((key, histogram) -> pending.computeIfAbsent(key, k -> newHistogram()).add(histogram));
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                stored.forEach((key, histogram) -> {
+                    Histogram newer = pending.get(key);
+                    if (newer != null) {
+                        histogram.add(newer);
+                    }
+                    merged.put(key, histogram);
+                });
+                lastSync = syncStart;
+                if (!stored.isEmpty()) {
+                    generation++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            // Del primario, igual que el recorrido del histórico: lo registrado antes de la carga se da por incluido
+            List<TicketLatencySketch> rows = ReadReplicaRouting.onPrimary(
+                    () -> readTransaction.execute(status -> sketchRepository.findAll()));
+            if (rows.isEmpty()) {
+                rows = buildFromHistory();
+            }
+
+            List<TicketLatencySketch> loadedRows = rows;
+            lock.lock();
+            try {
+                merged.clear();
+                loadedRows.forEach(row -> merged.put(Key.of(row), decode(row.getHistogram())));
+                pending.forEach((key, histogram) -> merged.computeIfAbsent(key, k -> newHistogram()).add(histogram));
+                lastSync = loadedRows.stream()
+                        .map(TicketLatencySketch::getUpdatedAt)
+                        .max(Comparator.naturalOrder())
+                        .orElse(LocalDateTime.now());
+                loaded = true;
+                generation++;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Recorre una sola vez los tickets cerrados y respondidos y guarda los histogramas resultantes
+    private List<TicketLatencySketch> buildFromHistory() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        lock.lock();
+        try {
+            // Lo registrado hasta ahora ya está confirmado y lo verá el recorrido
+            pending.clear();
+            buildCutoff = cutoff;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Map<Key, Histogram> built = new HashMap<>();
+            ReadReplicaRouting.onPrimary(() -> readTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> samples = ticketRepository.streamResolutionSamples(cutoff)) {
+                    samples.forEach(row -> addSample(built, TicketLatencySketch.METRIC_RESOLUTION, row));
+                }
+                try (Stream<Object[]> samples = ticketRepository.streamFirstResponseSamples(cutoff)) {
+                    samples.forEach(row -> addSample(built, TicketLatencySketch.METRIC_FIRST_RESPONSE, row));
+                }
+            }));
+
+            List<TicketLatencySketch> rows = built.entrySet().stream()
+                    .map(entry -> toRow(entry.getKey(), entry.getValue(), cutoff))
+                    .collect(Collectors.toList());
+            try {
+                transaction.executeWithoutResult(status -> sketchRepository.saveAll(rows));
+                log.info("Percentiles de tickets construidos desde el histórico: {} histogramas", rows.size());
+                return rows;
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia los construyó a la vez
+                return ReadReplicaRouting.onPrimary(() -> readTransaction.execute(status -> sketchRepository.findAll()));
+            }
+        } finally {
+            lock.lock();
+            try {
+                buildCutoff = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Map<Key, Histogram> persist(Map<Key, Histogram> batch, LocalDateTime now) {
+        Map<Key, Histogram> stored = new HashMap<>();
+        batch.forEach((key, delta) -> {
+            TicketLatencySketch row = sketchRepository
+                    .findByMetricAndDimensionAndDimensionValue(key.metric(), key.dimension(), key.value())
+                    .orElseGet(() -> new TicketLatencySketch(key.metric(), key.dimension(), key.value()));
+            Histogram histogram = row.getHistogram() != null ? decode(row.getHistogram()) : newHistogram();
+            histogram.add(delta);
+            row.setHistogram(encode(histogram));
+            row.setSampleCount(histogram.getTotalCount());
+            row.setUpdatedAt(now);
+            sketchRepository.save(row);
+            stored.put(key, histogram);
+        });
+
+        for (TicketLatencySketch row : sketchRepository.findByUpdatedAtAfter(lastSync.minus(SYNC_OVERLAP))) {
+            stored.putIfAbsent(Key.of(row), decode(row.getHistogram()));
+        }
+        return stored;
+    }
+
+    private void record(String metric, String priority, Long categoryId, LocalDateTime from, LocalDateTime to) {
+        long seconds = clamp(Duration.between(from, to).getSeconds());
+        lock.lock();
+        try {
+            if (buildCutoff != null && !to.isAfter(buildCutoff)) {
+                return;
+            }
+            for (Key key : Key.of(metric, priority, categoryId)) {
+                pending.computeIfAbsent(key, k -> newHistogram()).recordValue(seconds);
+                if (loaded) {
+                    merged.computeIfAbsent(key, k -> newHistogram()).recordValue(seconds);
+                }
+            }
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // row: inicio, fin, prioridad, id de categoría
+    private static void addSample(Map<Key, Histogram> histograms, String metric, Object[] row) {
+        LocalDateTime from = (LocalDateTime) row[0];
+        LocalDateTime to = (LocalDateTime) row[1];
+        if (from == null || to == null) {
+            return;
+        }
+        long seconds = clamp(Duration.between(from, to).getSeconds());
+        for (Key key : Key.of(metric, (String) row[2], (Long) row[3])) {
+            histograms.computeIfAbsent(key, k -> newHistogram()).recordValue(seconds);
+        }
+    }
+
+    private Map<String, String> categoryNames(List<TicketLatencyGroupDTO> groups) {
+        List<Long> ids = groups.stream()
+                .map(TicketLatencyGroupDTO::getGroup)
+                .filter(group -> group != null)
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(category -> category.getId().toString(), TicketCategory::getName));
+    }
+
+    private static TicketLatencyGroupDTO toGroup(Key key, Histogram histogram) {
+        return new TicketLatencyGroupDTO(
+                key.value().isEmpty() ? null : key.value(),
+                null,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / SECONDS_PER_MINUTE,
+                histogram.getValueAtPercentile(90) / SECONDS_PER_MINUTE,
+                histogram.getValueAtPercentile(99) / SECONDS_PER_MINUTE,
+                histogram.getMaxValue() / SECONDS_PER_MINUTE);
+    }
+
+    private static TicketLatencySketch toRow(Key key, Histogram histogram, LocalDateTime now) {
+        TicketLatencySketch row = new TicketLatencySketch(key.metric(), key.dimension(), key.value());
+        row.setHistogram(encode(histogram));
+        row.setSampleCount(histogram.getTotalCount());
+        row.setUpdatedAt(now);
+        return row;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(MAX_TRACKABLE_SECONDS, SIGNIFICANT_DIGITS);
+    }
+
+    private static long clamp(long seconds) {
+        return Math.min(Math.max(seconds, 0), MAX_TRACKABLE_SECONDS);
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static Histogram decode(byte[] bytes) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), MAX_TRACKABLE_SECONDS);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Histograma de percentiles corrupto", e);
+        }
+    }
+
+    private record Key(String metric, String dimension, String value) {
+
+        static Key of(TicketLatencySketch row) {
+            return new Key(row.getMetric(), row.getDimension(), row.getDimensionValue());
+        }
+
+        // Grupos a los que contribuye una muestra
+        static List<Key> of(String metric, String priority, Long categoryId) {
+            return List.of(
+                    new Key(metric, TicketRollup.DIMENSION_TOTAL, ""),
+                    new Key(metric, TicketRollup.DIMENSION_PRIORITY, priority != null ? priority : ""),
+                    new Key(metric, TicketRollup.DIMENSION_CATEGORY, categoryId != null ? categoryId.toString() : ""));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.edutech.supportservice.service.stats;
+
+import com.edutech.supportservice.model.RollupWatermark;
+import com.edutech.supportservice.model.Ticket;
+import com.edutech.supportservice.model.TicketDailyRollup;
+import com.edutech.supportservice.model.TicketHourlyRollup;
+import com.edutech.supportservice.model.TicketRollup;
+import com.edutech.supportservice.repository.RollupWatermarkRepository;
+import com.edutech.supportservice.repository.TicketDailyRollupRepository;
+import com.edutech.supportservice.repository.TicketHourlyRollupRepository;
+import com.edutech.supportservice.repository.TicketRepository;
+import com.edutech.supportservice.repository.TicketRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Rellena las tablas de agregados por hora y por día con la actividad de los tickets:
+ * altas (created_at), cierres (closed_at) y calificaciones (rated_at).
+ * <p>
+ * Cada pasada procesa solo los eventos posteriores a la marca de agua y anteriores a
+ * {@code now - lag}, de modo que las transacciones en curso ya se hayan confirmado, y
+ * avanza la marca en la misma transacción que los agregados. La primera pasada recorre el
+ * histórico en tramos de {@code max-window-hours}. Las filas no se corrigen después: un
+ * ticket eliminado sigue contando en los intervalos en los que se creó o se cerró. La única
+ * excepción es la recalificación, que {@link #ratingChanged} lleva al intervalo de la primera.
+ */
+@Slf4j
+@Component
+public class TicketRollupJob {
+
+    static final String WATERMARK = "tickets";
+
+    private final TicketRepository ticketRepository;
+    private final TicketHourlyRollupRepository hourlyRepository;
+    private final TicketDailyRollupRepository dailyRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transaction;
+    private final Duration lag;
+    private final Duration maxWindow;
+
+    // Evita dos pasadas simultáneas en esta instancia; entre instancias lo impide el bloqueo de la marca
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Autowired
+    public TicketRollupJob(TicketRepository ticketRepository,
+                           TicketHourlyRollupRepository hourlyRepository,
+                           TicketDailyRollupRepository dailyRepository,
+                           RollupWatermarkRepository watermarkRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.tickets.rollup.lag-ms:60000}") long lagMs,
+                           @Value("${app.tickets.rollup.max-window-hours:24}") long maxWindowHours) {
+        this.ticketRepository = ticketRepository;
+        this.hourlyRepository = hourlyRepository;
+        this.dailyRepository = dailyRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.lag = Duration.ofMillis(lagMs);
+        this.maxWindow = Duration.ofHours(maxWindowHours);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.rollup.interval-ms:60000}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron actualizar los agregados por intervalo de tickets, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Procesa los eventos pendientes hasta {@code now - lag}
+     *
+     * @return número de eventos agregados
+     */
+    public int run() {
+        runLock.lock();
+        try {
+            LocalDateTime target = LocalDateTime.now().minus(lag);
+            int events = 0;
+            Pass pass;
+            do {
+                pass = transaction.execute(status -> processNextWindow(target));
+                events += pass.events();
+            } while (pass.hasMore());
+            return events;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Corrige los agregados cuando cambia la calificación de un ticket ya calificado. La calificación
+     * sigue en el intervalo de su rated_at original, con la prioridad, categoría y curso actuales del
+     * ticket, y solo varía rating_sum.
+     * <p>
+     * Se ejecuta en la transacción de la recalificación y bloquea la marca como las pasadas: si la
+     * marca ya superó rated_at, una pasada contó la calificación anterior y se suma la diferencia; si
+     * no, la pasada que llegue a rated_at leerá la nueva una vez confirmada la recalificación.
+     */
+    public void ratingChanged(Ticket ticket, int previousRating) {
+        RollupWatermark watermark = watermarkRepository.findByIdForUpdate(WATERMARK).orElse(null);
+        if (watermark == null || ticket.getRatedAt().isAfter(watermark.getProcessedUntil())) {
+            return;
+        }
+
+        int difference = ticket.getSatisfactionRating() - previousRating;
+        Object[] row = {ticket.getRatedAt(), ticket.getPriority(),
+                ticket.getCategory() != null ? ticket.getCategory().getId() : null, ticket.getCourseId()};
+        Consumer<Delta> rerated = delta -> delta.ratingSum += difference;
+        Deltas hourly = new Deltas(ChronoUnit.HOURS);
+        Deltas daily = new Deltas(ChronoUnit.DAYS);
+        hourly.add(row, rerated);
+        daily.add(row, rerated);
+
+        merge(hourlyRepository, hourly, TicketHourlyRollup::new);
+        merge(dailyRepository, daily, TicketDailyRollup::new);
+    }
+
+    private Pass processNextWindow(LocalDateTime target) {
+        RollupWatermark watermark = watermarkRepository.findByIdForUpdate(WATERMARK).orElse(null);
+        if (watermark == null) {
+            // Se guarda sola para que las pasadas lean los tickets siempre con la marca bloqueada
+            watermarkRepository.save(initialWatermark(target));
+            return new Pass(0, true);
+        }
+
+        LocalDateTime from = watermark.getProcessedUntil();
+        if (!from.isBefore(target)) {
+            return new Pass(0, false);
+        }
+        LocalDateTime to = from.plus(maxWindow).isBefore(target) ? from.plus(maxWindow) : target;
+
+        Deltas hourly = new Deltas(ChronoUnit.HOURS);
+        Deltas daily = new Deltas(ChronoUnit.DAYS);
+        int events = 0;
+
+        for (Object[] row : ticketRepository.findCreatedBetween(from, to)) {
+            Consumer<Delta> created = delta -> delta.createdCount++;
+            hourly.add(row, created);
+            daily.add(row, created);
+            events++;
+        }
+        for (Object[] row : ticketRepository.findClosedBetween(from, to)) {
+            double seconds = Duration.between((LocalDateTime) row[4], (LocalDateTime) row[0]).toNanos() / 1e9;
+            Consumer<Delta> closed = delta -> {
+                delta.closedCount++;
+                delta.resolutionSeconds += seconds;
+            };
+            hourly.add(row, closed);
+            daily.add(row, closed);
+            events++;
+        }
+        for (Object[] row : ticketRepository.findRatedBetween(from, to)) {
+            int rating = ((Number) row[4]).intValue();
+            Consumer<Delta> rated = delta -> {
+                delta.ratingCount++;
+                delta.ratingSum += rating;
+            };
+            hourly.add(row, rated);
+            daily.add(row, rated);
+            events++;
+        }
+
+        merge(hourlyRepository, hourly, TicketHourlyRollup::new);
+        merge(dailyRepository, daily, TicketDailyRollup::new);
+
+        watermark.setProcessedUntil(to);
+        watermarkRepository.save(watermark);
+        return new Pass(events, to.isBefore(target));
+    }
+
+    // Primera pasada: completa rated_at de los tickets antiguos y empieza antes del ticket más antiguo
+    private RollupWatermark initialWatermark(LocalDateTime target) {
+        int backfilled = ticketRepository.backfillRatedAt();
+        if (backfilled > 0) {
+            log.info("Fecha de calificación rellenada para {} tickets", backfilled);
+        }
+        LocalDateTime earliest = ticketRepository.findEarliestCreatedAt();
+        LocalDateTime start = earliest != null ? earliest.minusSeconds(1) : target;
+        return new RollupWatermark(WATERMARK, start, null);
+    }
+
+    private <T extends TicketRollup> void merge(TicketRollupRepository<T> repository, Deltas deltas, RollupFactory<T> factory) {
+        if (deltas.byKey.isEmpty()) {
+            return;
+        }
+        Set<LocalDateTime> buckets = deltas.byKey.keySet().stream()
+                .map(Key::bucketStart)
+                .collect(Collectors.toSet());
+        Map<Key, T> rows = repository.findByBucketStartIn(buckets).stream()
+                .collect(Collectors.toMap(Key::of, row -> row));
+
+        List<T> changed = new ArrayList<>();
+        deltas.byKey.forEach((key, delta) -> {
+            T row = rows.computeIfAbsent(key, k -> factory.create(k.bucketStart(), k.dimension(), k.value()));
+            delta.addTo(row);
+            changed.add(row);
+        });
+        repository.saveAll(changed);
+    }
+
+    @FunctionalInterface
+    private interface RollupFactory<T extends TicketRollup> {
+        T create(LocalDateTime bucketStart, String dimension, String dimensionValue);
+    }
+
+    private record Pass(int events, boolean hasMore) {
+    }
+
+    private record Key(LocalDateTime bucketStart, String dimension, String value) {
+
+        static Key of(TicketRollup row) {
+            return new Key(row.getBucketStart(), row.getDimension(), row.getDimensionValue());
+        }
+    }
+
+    private static final class Delta {
+        private long createdCount;
+        private long closedCount;
+        private double resolutionSeconds;
+        private long ratingCount;
+        private long ratingSum;
+
+        void addTo(TicketRollup row) {
+            row.setCreatedCount(row.getCreatedCount() + createdCount);
+            row.setClosedCount(row.getClosedCount() + closedCount);
+            row.setResolutionSeconds(row.getResolutionSeconds() + resolutionSeconds);
+            row.setRatingCount(row.getRatingCount() + ratingCount);
+            row.setRatingSum(row.getRatingSum() + ratingSum);
+        }
+    }
+
+    // Variaciones de un tramo para una granularidad, por intervalo, dimensión y valor
+    private static final class Deltas {
+        private final ChronoUnit unit;
+        private final Map<Key, Delta> byKey = new HashMap<>();
+
+        Deltas(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        // row: fecha del evento, prioridad, id de categoría, id de curso
+        void add(Object[] row, Consumer<Delta> change) {
+            LocalDateTime bucket = ((LocalDateTime) row[0]).truncatedTo(unit);
+            change.accept(delta(bucket, TicketRollup.DIMENSION_TOTAL, null));
+            change.accept(delta(bucket, TicketRollup.DIMENSION_PRIORITY, row[1]));
+            change.accept(delta(bucket, TicketRollup.DIMENSION_CATEGORY, row[2]));
+            change.accept(delta(bucket, TicketRollup.DIMENSION_COURSE, row[3]));
+        }
+
+        private Delta delta(LocalDateTime bucket, String dimension, Object value) {
+            return byKey.computeIfAbsent(new Key(bucket, dimension, value != null ? value.toString() : ""),
+                    key -> new Delta());
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.edutech.supportservice.service.stats;
+
+import com.edutech.supportservice.config.ReadReplicaRouting;
+import com.edutech.supportservice.dto.TicketStatsDTO;
+import com.edutech.supportservice.event.TicketCategoryRenamedEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
+import com.edutech.supportservice.repository.AggregateTotals;
+import com.edutech.supportservice.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Estadísticas de tickets mantenidas en memoria: conteos por estado, prioridad y categoría
+ * y sumas para las medias de resolución y satisfacción.
+ * <p>
+ * Cada operación sobre un ticket publica un {@link TicketStatsChangedEvent} con su estado
+ * anterior y posterior; al confirmarse la transacción se resta la contribución anterior y se
+ * suma la nueva, de modo que las lecturas no consultan la base de datos. Periódicamente se
+ * recalculan los agregados con GROUP BY para corregir cualquier desviación (escrituras que no
+ * pasan por los servicios o cambios concurrentes sobre el mismo ticket).
+ */
+@Slf4j
+@Component
+public class TicketStatsEngine {
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final Counter driftCorrections;
+
+    // Protege el estado en memoria; las secciones críticas no hacen E/S
+    private final ReentrantLock lock = new ReentrantLock();
+    // Evita dos conciliaciones simultáneas
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private Aggregates current;
+    // Cambios recibidos mientras se leen los agregados de la base de datos; se reaplican los que la lectura no vio
+    private List<PendingChange> pendingDuringReconcile;
+    private LocalDateTime reconciledAt;
+    // Cambia con cada modificación aplicada, para calcular el ETag sin comparar los agregados
+    private long generation;
+    private final long instanceId = System.currentTimeMillis();
+
+    @Autowired
+    public TicketStatsEngine(TicketRepository ticketRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+
+        // Todas las consultas de la conciliación ven la misma instantánea de la base de datos
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.driftCorrections = Counter.builder("tickets.stats.drift")
+                .description("Conciliaciones en las que las estadísticas en memoria no coincidían con la base de datos")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketStatsChanged(TicketStatsChangedEvent event) {
+        apply(event, aggregates -> {
+            if (event.getBefore() != null) {
+                aggregates.add(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                aggregates.add(event.getAfter(), 1);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCategoryRenamed(TicketCategoryRenamedEvent event) {
+        apply(null, aggregates -> aggregates.renameCategory(event.getOldName(), event.getNewName()));
+    }
+
+    /**
+     * Estadísticas actuales; la primera llamada las carga de la base de datos si aún no se ha hecho
+     */
+    public TicketStatsDTO getStats() {
+        ensureLoaded();
+        lock.lock();
+        try {
+            return current.toDTO(reconciledAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getVersionTag() {
+        ensureLoaded();
+        lock.lock();
+        try {
+            return instanceId + ":" + generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.tickets.stats.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron conciliar las estadísticas de tickets, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula los agregados con la base de datos y sustituye los de memoria
+     */
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            lock.lock();
+            try {
+                pendingDuringReconcile = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                // Del primario. Los cambios recibidos desde aquí pueden estar o no en la foto según cuándo se
+                // confirmaron; en la misma transacción se leen las versiones de sus tickets para saberlo
+                ReadReplicaRouting.onPrimary(() -> snapshotTransaction.executeWithoutResult(
+                        status -> replaceWith(loadFromDatabase())));
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    pendingDuringReconcile = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // Se ejecuta en la transacción de la foto: consulta las versiones de los tickets con cambios pendientes
+    // hasta que no llegan cambios de otros tickets y entonces reaplica sobre la foto solo los que no vio
+    private void replaceWith(Aggregates fresh) {
+        Map<Long, Long> snapshotVersions = new HashMap<>();
+        Set<Long> queried = new HashSet<>();
+        while (true) {
+            Set<Long> ticketIds = new HashSet<>();
+            lock.lock();
+            try {
+                for (PendingChange change : pendingDuringReconcile) {
+                    Long ticketId = change.ticketId();
+                    if (ticketId != null && !queried.contains(ticketId)) {
+                        ticketIds.add(ticketId);
+                    }
+                }
+                if (ticketIds.isEmpty()) {
+                    replay(fresh, snapshotVersions);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            for (Object[] row : ticketRepository.findVersionsByIdIn(ticketIds)) {
+                snapshotVersions.put((Long) row[0], (Long) row[1]);
+            }
+            queried.addAll(ticketIds);
+        }
+    }
+
+    // Con el cerrojo tomado
+    private void replay(Aggregates fresh, Map<Long, Long> snapshotVersions) {
+        Set<Long> createdDuringReconcile = new HashSet<>();
+        for (PendingChange change : pendingDuringReconcile) {
+            if (change.isCreation()) {
+                createdDuringReconcile.add(change.ticketId());
+            }
+        }
+        for (PendingChange change : pendingDuringReconcile) {
+            if (!change.seenBy(snapshotVersions, createdDuringReconcile)) {
+                change.change().accept(fresh);
+            }
+        }
+        pendingDuringReconcile = null;
+
+        if (current != null && !current.matches(fresh)) {
+            driftCorrections.increment();
+            log.warn("Estadísticas de tickets corregidas en la conciliación: {} tickets en memoria, {} en la base de datos",
+                    current.total, fresh.total);
+        }
+        current = fresh;
+        reconciledAt = LocalDateTime.now();
+        generation++;
+    }
+
+    private void ensureLoaded() {
+        lock.lock();
+        try {
+            if (current != null) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        reconcile();
+    }
+
+    private void apply(TicketStatsChangedEvent event, Consumer<Aggregates> change) {
+        lock.lock();
+        try {
+            if (pendingDuringReconcile != null) {
+                pendingDuringReconcile.add(new PendingChange(event, change));
+            }
+            // Antes de la primera carga no hay nada que actualizar: la lectura inicial ya verá el cambio
+            if (current != null) {
+                change.accept(current);
+                generation++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Aggregates loadFromDatabase() {
+        Aggregates aggregates = new Aggregates();
+        for (Object[] row : ticketRepository.getTicketCountsByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            aggregates.statusCounts.put((String) row[0], count);
+            aggregates.total += count;
+        }
+        for (Object[] row : ticketRepository.getTicketCountsByPriority()) {
+            aggregates.priorityCounts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : ticketRepository.getTicketCountsByCategory()) {
+            if (row[0] != null) {
+                aggregates.categoryCounts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        AggregateTotals resolution = ticketRepository.getResolutionTimeTotals();
+        aggregates.closedCount = resolution.getCount().longValue();
+        aggregates.resolutionSeconds = resolution.getTotal() != null ? resolution.getTotal().doubleValue() : 0;
+
+        AggregateTotals satisfaction = ticketRepository.getSatisfactionRatingTotals();
+        aggregates.ratedCount = satisfaction.getCount().longValue();
+        aggregates.ratingSum = satisfaction.getTotal() != null ? satisfaction.getTotal().longValue() : 0;
+        return aggregates;
+    }
+
+    /**
+     * Cambio recibido durante una conciliación; sin evento para los renombrados de categoría, que se
+     * reaplican siempre porque no mueven nada si la foto ya tiene el nombre nuevo
+     */
+    private record PendingChange(TicketStatsChangedEvent event, Consumer<Aggregates> change) {
+
+        Long ticketId() {
+            if (event == null) {
+                return null;
+            }
+            return event.getAfter() != null ? event.getAfter().getTicketId() : event.getBefore().getTicketId();
+        }
+
+        boolean isCreation() {
+            return event != null && event.getBefore() == null;
+        }
+
+        // La foto ya incluye el cambio si vio el ticket en la versión que dejó o en una posterior. Si no vio
+        // el ticket, la foto es anterior a su alta cuando el alta llegó durante la conciliación (se reaplica
+        // todo, también un borrado posterior) y posterior a su borrado en otro caso (no se reaplica nada)
+        boolean seenBy(Map<Long, Long> snapshotVersions, Set<Long> createdDuringReconcile) {
+            if (event == null) {
+                return false;
+            }
+            Long seenVersion = snapshotVersions.get(ticketId());
+            if (seenVersion == null) {
+                return !createdDuringReconcile.contains(ticketId());
+            }
+            return event.getAfter() != null && event.getAfter().getVersion() <= seenVersion;
+        }
+    }
+
+    private static final class Aggregates {
+        private static final double SECONDS_PER_DAY = 86400.0;
+        // Margen para comparar sumas de segundos calculadas en Java y en la base de datos
+        private static final double RESOLUTION_TOLERANCE_SECONDS = 1.0;
+
+        private final Map<String, Long> statusCounts = new HashMap<>();
+        private final Map<String, Long> priorityCounts = new HashMap<>();
+        private final Map<String, Long> categoryCounts = new HashMap<>();
+        private long total;
+        private long closedCount;
+        private double resolutionSeconds;
+        private long ratedCount;
+        private long ratingSum;
+
+        void add(TicketStatsChangedEvent.Snapshot ticket, int sign) {
+            total += sign;
+            increment(statusCounts, ticket.getStatus(), sign);
+            increment(priorityCounts, ticket.getPriority(), sign);
+            if (ticket.getCategoryName() != null) {
+                increment(categoryCounts, ticket.getCategoryName(), sign);
+            }
+            // Mismo criterio que la consulta de conciliación: tickets CERRADO con fecha de cierre
+            if ("CERRADO".equals(ticket.getStatus()) && ticket.getClosedAt() != null && ticket.getCreatedAt() != null) {
+                closedCount += sign;
+                resolutionSeconds += sign * Duration.between(ticket.getCreatedAt(), ticket.getClosedAt()).toNanos() / 1e9;
+            }
+            if (ticket.getSatisfactionRating() != null) {
+                ratedCount += sign;
+                ratingSum += (long) sign * ticket.getSatisfactionRating();
+            }
+        }
+
+        void renameCategory(String oldName, String newName) {
+            Long count = categoryCounts.remove(oldName);
+            if (count != null) {
+                categoryCounts.merge(newName, count, Long::sum);
+            }
+        }
+
+        boolean matches(Aggregates other) {
+            return total == other.total
+                    && closedCount == other.closedCount
+                    && ratedCount == other.ratedCount
+                    && ratingSum == other.ratingSum
+                    && Math.abs(resolutionSeconds - other.resolutionSeconds) <= RESOLUTION_TOLERANCE_SECONDS * Math.max(1, closedCount)
+                    && statusCounts.equals(other.statusCounts)
+                    && priorityCounts.equals(other.priorityCounts)
+                    && categoryCounts.equals(other.categoryCounts);
+        }
+
+        TicketStatsDTO toDTO(LocalDateTime reconciledAt) {
+            return new TicketStatsDTO(total,
+                    new HashMap<>(statusCounts),
+                    new HashMap<>(priorityCounts),
+                    new HashMap<>(categoryCounts),
+                    closedCount,
+                    closedCount > 0 ? resolutionSeconds / closedCount / SECONDS_PER_DAY : null,
+                    ratedCount,
+                    ratedCount > 0 ? (double) ratingSum / ratedCount : null,
+                    reconciledAt);
+        }
+
+        // Como en un GROUP BY, un grupo sin tickets desaparece
+        private static void increment(Map<String, Long> counts, String key, int sign) {
+            counts.merge(key, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.edutech.supportservice.service.stats;
+
+import com.edutech.supportservice.dto.TicketTimeseriesDTO;
+import com.edutech.supportservice.dto.TicketTimeseriesPointDTO;
+import com.edutech.supportservice.model.RollupWatermark;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.model.TicketRollup;
+import com.edutech.supportservice.repository.RollupWatermarkRepository;
+import com.edutech.supportservice.repository.TicketCategoryRepository;
+import com.edutech.supportservice.repository.TicketDailyRollupRepository;
+import com.edutech.supportservice.repository.TicketHourlyRollupRepository;
+import com.edutech.supportservice.util.ETagUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Series temporales de actividad de tickets servidas solo desde las tablas de agregados
+ * que mantiene {@link TicketRollupJob}; nunca consultan la tabla de tickets.
+ */
+@Service
+public class TicketTimeseriesService {
+
+    private static final double SECONDS_PER_DAY = 86400.0;
+    // Límite de intervalos por serie y grupo
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(1096);
+    private static final Duration DEFAULT_HOURLY_RANGE = Duration.ofHours(24);
+    private static final Duration DEFAULT_DAILY_RANGE = Duration.ofDays(30);
+
+    private static final Map<String, String> DIMENSIONS = Map.of(
+            "none", TicketRollup.DIMENSION_TOTAL,
+            "priority", TicketRollup.DIMENSION_PRIORITY,
+            "category", TicketRollup.DIMENSION_CATEGORY,
+            "course", TicketRollup.DIMENSION_COURSE);
+
+    private final TicketHourlyRollupRepository hourlyRepository;
+    private final TicketDailyRollupRepository dailyRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final TicketCategoryRepository categoryRepository;
+
+    @Autowired
+    public TicketTimeseriesService(TicketHourlyRollupRepository hourlyRepository,
+                                   TicketDailyRollupRepository dailyRepository,
+                                   RollupWatermarkRepository watermarkRepository,
+                                   TicketCategoryRepository categoryRepository) {
+        this.hourlyRepository = hourlyRepository;
+        this.dailyRepository = dailyRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Serie entre {@code from} (incluido, truncado al inicio de su intervalo) y {@code to} (excluido).
+     * Sin fechas devuelve las últimas 24 horas por hora o los últimos 30 días por día.
+     *
+     * @param bucket  hour o day
+     * @param groupBy none, priority, category o course
+     */
+    @Transactional(readOnly = true)
+    public TicketTimeseriesDTO getTimeseries(LocalDateTime from, LocalDateTime to, String bucket, String groupBy) {
+        Range range = resolve(from, to, bucket, groupBy);
+
+        List<? extends TicketRollup> rows = range.unit() == ChronoUnit.HOURS
+                ? hourlyRepository.findSeries(range.dimension(), range.from(), range.to())
+                : dailyRepository.findSeries(range.dimension(), range.from(), range.to());
+        Map<String, String> categoryNames = TicketRollup.DIMENSION_CATEGORY.equals(range.dimension())
+                ? categoryNames(rows)
+                : Collections.emptyMap();
+
+        List<TicketTimeseriesPointDTO> points = rows.stream()
+                .map(row -> toPoint(row, categoryNames))
+                .collect(Collectors.toList());
+        return new TicketTimeseriesDTO(range.bucket(), range.groupBy(), range.from(), range.to(),
+                processedUntil(), points);
+    }
+
+    // Cambia solo cuando el job avanza la marca de agua
+    @Transactional(readOnly = true)
+    public String getTimeseriesETag(LocalDateTime from, LocalDateTime to, String bucket, String groupBy) {
+        Range range = resolve(from, to, bucket, groupBy);
+        return ETagUtil.of("timeseries", range.bucket(), range.groupBy(), range.from(), range.to(), processedUntil());
+    }
+
+    private LocalDateTime processedUntil() {
+        return watermarkRepository.findById(TicketRollupJob.WATERMARK)
+                .map(RollupWatermark::getProcessedUntil)
+                .orElse(null);
+    }
+
+    private Range resolve(LocalDateTime from, LocalDateTime to, String bucket, String groupBy) {
+        String bucketKey = bucket.toLowerCase(Locale.ROOT);
+        ChronoUnit unit;
+        Duration defaultRange;
+        Duration maxRange;
+        switch (bucketKey) {
+            case "hour" -> {
+                unit = ChronoUnit.HOURS;
+                defaultRange = DEFAULT_HOURLY_RANGE;
+                maxRange = MAX_HOURLY_RANGE;
+            }
+            case "day" -> {
+                unit = ChronoUnit.DAYS;
+                defaultRange = DEFAULT_DAILY_RANGE;
+                maxRange = MAX_DAILY_RANGE;
+            }
+            default -> throw new IllegalArgumentException("Intervalo no válido: " + bucket + " (hour o day)");
+        }
+
+        String groupKey = groupBy.toLowerCase(Locale.ROOT);
+        String dimension = DIMENSIONS.get(groupKey);
+        if (dimension == null) {
+            throw new IllegalArgumentException("Agrupación no válida: " + groupBy + " (none, priority, category o course)");
+        }
+
+        // Sin fin explícito se incluye el intervalo en curso; los extremos truncados mantienen estable el ETag
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(unit).plus(1, unit);
+        LocalDateTime start = (from != null ? from : end.minus(defaultRange)).truncatedTo(unit);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la final");
+        }
+        if (Duration.between(start, end).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("El rango máximo para intervalos de tipo " + bucketKey
+                    + " es de " + maxRange.toDays() + " días");
+        }
+        return new Range(bucketKey, groupKey, dimension, unit, start, end);
+    }
+
+    private Map<String, String> categoryNames(List<? extends TicketRollup> rows) {
+        List<Long> ids = rows.stream()
+                .map(TicketRollup::getDimensionValue)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(category -> category.getId().toString(), TicketCategory::getName));
+    }
+
+    private TicketTimeseriesPointDTO toPoint(TicketRollup row, Map<String, String> categoryNames) {
+        String group = row.getDimensionValue().isEmpty() ? null : row.getDimensionValue();
+        return new TicketTimeseriesPointDTO(
+                row.getBucketStart(),
+                group,
+                group != null ? categoryNames.get(group) : null,
+                row.getCreatedCount(),
+                row.getClosedCount(),
+                row.getClosedCount() > 0 ? row.getResolutionSeconds() / row.getClosedCount() / SECONDS_PER_DAY : null,
+                row.getRatingCount(),
+                row.getRatingCount() > 0 ? (double) row.getRatingSum() / row.getRatingCount() : null);
+    }
+
+    private record Range(String bucket, String groupBy, String dimension, ChronoUnit unit,
+                         LocalDateTime from, LocalDateTime to) {
+    }
+}
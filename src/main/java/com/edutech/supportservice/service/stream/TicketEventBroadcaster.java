@@ -0,0 +1,252 @@
+package com.edutech.supportservice.service.stream;
+
+import com.edutech.supportservice.event.TicketActivityEvent;
+import com.edutech.supportservice.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparte la actividad confirmada de cada ticket a los clientes suscritos mediante Server-Sent Events.
+ * <p>
+ * Las conexiones usan el modo asíncrono del servlet: mientras no hay nada que enviar no ocupan
+ * ningún hilo de Tomcat. Cada suscriptor tiene un buffer acotado que vacía un pool pequeño de
+ * hilos de envío; si un cliente lento llena su buffer se descartan los eventos pendientes y se le
+ * envía un único evento {@code RESYNC} para que vuelva a consultar el ticket por la API REST.
+ */
+@Slf4j
+@Component
+public class TicketEventBroadcaster {
+
+    private static final String RESYNC_EVENT = "RESYNC";
+    private static final String TICKET_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM tickets WHERE id = ?)";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService sender;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter droppedEvents;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long retryMs;
+
+    @Autowired
+    public TicketEventBroadcaster(JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.tickets.events.buffer-size:64}") int bufferSize,
+                                  @Value("${app.tickets.events.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${app.tickets.events.retry-ms:5000}") long retryMs,
+                                  @Value("${app.tickets.events.sender-threads:4}") int senderThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.retryMs = retryMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ticket-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("tickets.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Conexiones SSE abiertas a flujos de eventos de tickets")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("tickets.events.dropped")
+                .description("Eventos descartados porque el buffer del suscriptor estaba lleno")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre un flujo de eventos para el ticket indicado.
+     */
+    public SseEmitter subscribe(Long ticketId) {
+        // Con open-in-view, usar el EntityManager de la petición retendría una conexión del pool
+        // durante toda la vida del flujo; JdbcTemplate la devuelve en cuanto termina la consulta
+        Boolean exists = jdbcTemplate.queryForObject(TICKET_EXISTS_SQL, Boolean.class, ticketId);
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new ResourceNotFoundException("Ticket", "id", ticketId);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(ticketId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        // Se añade dentro de compute para no competir con la retirada del último suscriptor del ticket
+        subscribers.compute(ticketId, (id, ticketSubscribers) -> {
+            Set<Subscriber> updated = ticketSubscribers != null ? ticketSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+
+        // Envía las cabeceras de inmediato e indica al navegador cuánto esperar antes de reconectar
+        subscriber.offer(Outgoing.comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketActivity(TicketActivityEvent event) {
+        Set<Subscriber> ticketSubscribers = subscribers.get(event.getTicketId());
+        if (ticketSubscribers == null || ticketSubscribers.isEmpty()) {
+            return;
+        }
+
+        // Se serializa una sola vez para todos los suscriptores del ticket
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el evento {} del ticket {}", event.getType(), event.getTicketId(), e);
+            return;
+        }
+
+        Outgoing outgoing = new Outgoing(String.valueOf(sequence.incrementAndGet()), event.getType().name(), data);
+        ticketSubscribers.forEach(subscriber -> subscriber.offer(outgoing));
+    }
+
+    /**
+     * Mantiene vivas las conexiones inactivas frente a proxies y detecta clientes desconectados,
+     * ya que el servidor solo se entera del cierre al intentar escribir.
+     */
+    @Scheduled(fixedDelayString = "${app.tickets.events.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        Outgoing heartbeat = Outgoing.comment("heartbeat");
+        subscribers.values().forEach(ticketSubscribers -> ticketSubscribers.forEach(subscriber -> {
+            if (subscriber.buffer.isEmpty()) {
+                subscriber.offer(heartbeat);
+            }
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(ticketSubscribers -> ticketSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriber.buffer.clear();
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.ticketId, (id, ticketSubscribers) -> {
+            ticketSubscribers.remove(subscriber);
+            return ticketSubscribers.isEmpty() ? null : ticketSubscribers;
+        });
+    }
+
+    private record Outgoing(String id, String name, String data) {
+
+        static Outgoing comment(String text) {
+            return new Outgoing(null, null, text);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment(data);
+            }
+            return SseEmitter.event().id(id).name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final Long ticketId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean retrySent;
+
+        Subscriber(Long ticketId, SseEmitter emitter) {
+            this.ticketId = ticketId;
+            this.emitter = emitter;
+        }
+
+        void offer(Outgoing outgoing) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(outgoing)) {
+                // Cliente lento: en lugar de bloquear al resto se descarta lo pendiente y se pide resincronizar
+                int dropped = buffer.size() + 1;
+                buffer.clear();
+                buffer.offer(new Outgoing(String.valueOf(sequence.incrementAndGet()), RESYNC_EVENT,
+                        "{\"ticketId\":" + ticketId + "}"));
+                droppedEvents.increment(dropped);
+                log.debug("Suscriptor lento del ticket {}: {} eventos descartados", ticketId, dropped);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    emitter.complete();
+                }
+            }
+        }
+
+        // Un solo hilo escribe en cada emisor a la vez; el resto de suscriptores sigue en paralelo
+        private void drain() {
+            try {
+                Outgoing outgoing;
+                while (!closed.get() && (outgoing = buffer.poll()) != null) {
+                    SseEmitter.SseEventBuilder event = outgoing.toEvent();
+                    if (!retrySent) {
+                        event.reconnectTime(retryMs);
+                        retrySent = true;
+                    }
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente cerró la conexión o el emisor ya había terminado; el contenedor cierra la petición
+                unsubscribe(this);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -44,6 +44,13 @@ public class AuditLogger {
         log("ACCESO", resourceType, resourceId, username, null);
     }
     
+    /**
+     * Registra un aviso o un incumplimiento del plazo de resolución (SLA) de un ticket
+     */
+    public void logSlaEvent(String eventType, Long ticketId, String details) {
+        log(eventType, "Ticket", ticketId, "sistema", details);
+    }
+    
     /**
      * Registra un evento de seguridad
      */
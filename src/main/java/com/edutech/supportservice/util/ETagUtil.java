@@ -0,0 +1,74 @@
+package com.edutech.supportservice.util;
+
+import com.edutech.supportservice.repository.ChangeProbe;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Utilidades para GET condicionales con ETags fuertes.
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * ETag a partir de los valores que determinan el contenido de una respuesta.
+     */
+    public static String of(Object... parts) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return ofContent(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * ETag de un listado o entidad a partir de su sonda de cambios.
+     */
+    public static String of(String scope, ChangeProbe probe) {
+        return of(scope, probe.getCount(), probe.getLastUpdated(), probe.getVersionSum(), probe.getActivitySum());
+    }
+
+    /**
+     * ETag de un cuerpo ya serializado.
+     */
+    public static String ofContent(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    /**
+     * Responde 304 si el If-None-Match coincide con el ETag, sin invocar {@code body};
+     * en caso contrario devuelve 200 con el cuerpo y el ETag.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(body.get());
+    }
+
+    /**
+     * Como {@link #conditional}, con el ETag calculado del propio cuerpo serializado. Para cuerpos que
+     * pueden venir de una caché, donde una sonda de la base de datos podría ir por delante de ella.
+     */
+    public static <T> ResponseEntity<T> conditionalOnBody(WebRequest request, ObjectMapper objectMapper, T body)
+            throws JsonProcessingException {
+        return conditional(request, ofContent(objectMapper.writeValueAsBytes(body)), () -> body);
+    }
+}
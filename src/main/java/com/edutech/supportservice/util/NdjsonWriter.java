@@ -0,0 +1,50 @@
+package com.edutech.supportservice.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escribe elementos como JSON delimitado por saltos de línea (application/x-ndjson)
+ * a medida que se producen, sin acumular el resultado completo en memoria.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream outputStream;
+    private int written;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this.objectMapper = objectMapper;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(item));
+            outputStream.write('\n');
+            if (++written % FLUSH_INTERVAL == 0) {
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Crea el cuerpo de respuesta que ejecuta el productor escribiendo cada elemento en NDJSON
+     */
+    public static <T> StreamingResponseBody body(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        return outputStream -> {
+            producer.accept(new NdjsonWriter<>(objectMapper, outputStream));
+            outputStream.flush();
+        };
+    }
+}
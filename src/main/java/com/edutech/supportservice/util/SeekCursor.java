@@ -0,0 +1,46 @@
+package com.edutech.supportservice.util;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de lectura para la paginación por clave (created_at, id).
+ * Se entrega al cliente como un token opaco codificado en Base64 URL-safe.
+ */
+@Value
+public class SeekCursor {
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime createdAt;
+    Long id;
+
+    /**
+     * Codifica el cursor como token opaco
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token generado por {@link #encode()}
+     */
+    public static SeekCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + token);
+            }
+            return new SeekCursor(LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+-- Esquema de partida: el mismo que generaba Hibernate con ddl-auto=update.
+-- Las bases de datos existentes no lo ejecutan: Flyway las marca como versión 1 (baseline-on-migrate)
+-- y solo aplica las migraciones posteriores.
+
+create sequence faqs_seq start with 1 increment by 50;
+
+create sequence messages_seq start with 1 increment by 50;
+
+create sequence ticket_categories_seq start with 1 increment by 10;
+
+create sequence ticket_latency_sketches_seq start with 1 increment by 50;
+
+create sequence ticket_rollups_seq start with 1 increment by 50;
+
+create sequence tickets_seq start with 1 increment by 50;
+
+create table faqs (
+    display_order integer,
+    helpful_votes integer,
+    published boolean not null,
+    unhelpful_votes integer,
+    view_count integer,
+    category_id bigint,
+    created_at timestamp(6) not null,
+    id bigint not null,
+    updated_at timestamp(6),
+    version bigint default 0 not null,
+    answer TEXT not null,
+    question varchar(255) not null,
+    search_keywords varchar(255),
+    primary key (id)
+);
+
+create table messages (
+    is_internal_note boolean,
+    created_at timestamp(6) not null,
+    id bigint not null,
+    sender_id bigint not null,
+    ticket_id bigint not null,
+    attachment_type varchar(255),
+    attachment_url varchar(255),
+    content TEXT not null,
+    sender_email varchar(255),
+    sender_name varchar(255),
+    sender_type varchar(255),
+    primary key (id)
+);
+
+create table rollup_watermarks (
+    processed_until timestamp(6) not null,
+    version bigint not null,
+    name varchar(50) not null,
+    primary key (name)
+);
+
+create table ticket_categories (
+    active boolean not null,
+    expected_resolution_time_hours integer,
+    created_at timestamp(6) not null,
+    id bigint not null,
+    updated_at timestamp(6),
+    version bigint default 0 not null,
+    name varchar(50) not null,
+    description TEXT,
+    primary key (id),
+    constraint uk_ticket_categories_name unique (name)
+);
+
+create table ticket_latency_sketches (
+    id bigint not null,
+    sample_count bigint not null,
+    updated_at timestamp(6) not null,
+    version bigint not null,
+    dimension varchar(20) not null,
+    metric varchar(20) not null,
+    histogram bytea not null,
+    dimension_value varchar(255) not null,
+    primary key (id),
+    constraint uk_ticket_latency_sketches_key unique (metric, dimension, dimension_value)
+);
+
+create table ticket_read_cursor (
+    last_read_message_id bigint not null,
+    ticket_id bigint not null,
+    updated_at timestamp(6) not null,
+    user_id bigint not null,
+    primary key (ticket_id, user_id)
+);
+
+create table ticket_rollups_daily (
+    resolution_seconds float(53) not null,
+    bucket_start timestamp(6) not null,
+    closed_count bigint not null,
+    created_count bigint not null,
+    id bigint not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    dimension varchar(20) not null,
+    dimension_value varchar(255) not null,
+    primary key (id),
+    constraint uk_ticket_rollups_daily_bucket unique (dimension, bucket_start, dimension_value)
+);
+
+create table ticket_rollups_hourly (
+    resolution_seconds float(53) not null,
+    bucket_start timestamp(6) not null,
+    closed_count bigint not null,
+    created_count bigint not null,
+    id bigint not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    dimension varchar(20) not null,
+    dimension_value varchar(255) not null,
+    primary key (id),
+    constraint uk_ticket_rollups_hourly_bucket unique (dimension, bucket_start, dimension_value)
+);
+
+create table tickets (
+    message_count integer,
+    satisfaction_rating integer,
+    assigned_to bigint,
+    category_id bigint,
+    closed_at timestamp(6),
+    course_id bigint,
+    created_at timestamp(6) not null,
+    first_staff_response_at timestamp(6),
+    first_user_message_at timestamp(6),
+    id bigint not null,
+    last_activity_at timestamp(6),
+    rated_at timestamp(6),
+    updated_at timestamp(6),
+    user_id bigint not null,
+    version bigint default 0 not null,
+    title varchar(100) not null,
+    course_name varchar(255),
+    description TEXT,
+    feedback varchar(255),
+    priority varchar(255) not null,
+    status varchar(255) not null,
+    user_email varchar(255),
+    user_name varchar(255),
+    user_type varchar(255),
+    primary key (id)
+);
+
+create index idx_messages_ticket_created_at_id
+   on messages (ticket_id, created_at, id);
+
+create index idx_messages_ticket_id_id
+   on messages (ticket_id, id);
+
+create index idx_ticket_read_cursor_user_id
+   on ticket_read_cursor (user_id);
+
+create index idx_tickets_last_activity_at
+   on tickets (last_activity_at);
+
+create index idx_tickets_created_at_id
+   on tickets (created_at, id);
+
+create index idx_tickets_closed_at
+   on tickets (closed_at);
+
+create index idx_tickets_rated_at
+   on tickets (rated_at);
+
+alter table faqs
+   add constraint fk_faqs_category
+   foreign key (category_id)
+   references ticket_categories (id);
+
+alter table messages
+   add constraint fk_messages_ticket
+   foreign key (ticket_id)
+   references tickets (id);
+
+alter table tickets
+   add constraint fk_tickets_category
+   foreign key (category_id)
+   references ticket_categories (id);
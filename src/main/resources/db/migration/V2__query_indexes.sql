@@ -0,0 +1,54 @@
+-- Índices para las consultas de los repositorios que hasta ahora recorrían la tabla completa.
+-- CONCURRENTLY no bloquea las escrituras mientras se construye el índice; Flyway ejecuta esta
+-- migración fuera de una transacción, por lo que aquí solo pueden ir sentencias CONCURRENTLY.
+-- IF NOT EXISTS permite relanzarla si un índice quedó a medias (inválido) tras un fallo: hay que
+-- borrarlo a mano con DROP INDEX CONCURRENTLY antes de reintentar.
+--
+-- Sin índice a propósito:
+--   faqs.view_count y faqs.helpful_votes: se actualizan en cada visita y voto, y un índice sobre ellos
+--   impediría las actualizaciones HOT; la tabla es pequeña y se ordena en memoria.
+--   Agregados sobre toda la tabla (conteos por estado, prioridad y categoría, sondeos sin filtro,
+--   exportaciones completas y la reconstrucción de sketches): leen todas las filas igualmente.
+
+-- Listados, exportaciones y sondeos de cambios por estudiante y por agente, paginados por fecha
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_user_id_created_at ON tickets (user_id, created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_assigned_to_created_at ON tickets (assigned_to, created_at);
+
+-- Estados poco frecuentes (NUEVO, ASIGNADO); para RESUELTO y CERRADO el planificador sigue leyendo la tabla
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_status ON tickets (status);
+
+-- También cubre la clave foránea: sin él, borrar una categoría recorre todos los tickets
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_category_id ON tickets (category_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_course_id ON tickets (course_id);
+
+-- Carga de los plazos SLA al arrancar: solo los tickets abiertos, una fracción pequeña de la tabla
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_open_created_at ON tickets (created_at)
+    WHERE status NOT IN ('RESUELTO', 'CERRADO');
+
+-- Rellenos de contadores y de rated_at: quedan vacíos una vez completados y no ocupan espacio
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_pending_counters ON tickets (id)
+    WHERE message_count IS NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_pending_rated_at ON tickets (id)
+    WHERE satisfaction_rating IS NOT NULL AND rated_at IS NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_sender_id ON messages (sender_id);
+
+-- Las notas internas son pocas frente a los mensajes visibles para el estudiante
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_internal_notes ON messages (ticket_id)
+    WHERE is_internal_note = true;
+
+-- También cubre la clave foránea de faqs.category_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_faqs_category_id_published ON faqs (category_id, published);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_faqs_published_display_order ON faqs (display_order)
+    WHERE published = true;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_latency_sketches_updated_at ON ticket_latency_sketches (updated_at);
+
+-- La restricción única empieza por dimension; la carga de cubos por fecha necesita bucket_start al principio
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_rollups_hourly_bucket_start ON ticket_rollups_hourly (bucket_start);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_rollups_daily_bucket_start ON ticket_rollups_daily (bucket_start);
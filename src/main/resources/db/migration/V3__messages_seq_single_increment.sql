@@ -0,0 +1,13 @@
+-- messages_seq pasa de bloques pooled-lo a incremento 1: el cursor de lectura (ticket_read_cursor)
+-- compara ids de mensajes y con un bloque por instancia un mensaje nuevo podía recibir un id menor
+-- que otro ya leído. Los bloques repartidos llegan hasta last_value + increment_by - 1, así que la
+-- secuencia continúa por encima de ellos y del máximo id existente.
+CREATE SEQUENCE IF NOT EXISTS messages_seq;
+
+SELECT setval('messages_seq', GREATEST(
+        COALESCE((SELECT last_value + increment_by - 1 FROM pg_sequences
+                  WHERE schemaname = current_schema() AND sequencename = 'messages_seq'), 0),
+        COALESCE((SELECT MAX(id) FROM messages), 0),
+        1));
+
+ALTER SEQUENCE messages_seq INCREMENT BY 1;
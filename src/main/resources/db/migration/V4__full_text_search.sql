@@ -0,0 +1,55 @@
+-- Búsqueda de texto completo (PostgresSearchIndex): columna search_vector en tickets y faqs, mantenida
+-- por un trigger en la misma transacción que la escritura. La configuración es_unaccent combina unaccent
+-- con el stemmer español, de modo que "contrasena" encuentra "contraseñas".
+-- Hasta ahora este DDL se ejecutaba en cada arranque; las sentencias son idempotentes para las bases de
+-- datos que ya lo tienen, y el relleno solo toca las filas sin vector.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'es_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION es_unaccent (COPY = spanish);
+        ALTER TEXT SEARCH CONFIGURATION es_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, spanish_stem;
+    END IF;
+END $$;
+
+-- Tickets: el título pesa más que la descripción
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION tickets_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('es_unaccent', coalesce(NEW.title, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(NEW.description, '')), 'B');
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tickets_search_vector_trigger ON tickets;
+
+CREATE TRIGGER tickets_search_vector_trigger BEFORE INSERT OR UPDATE OF title, description
+    ON tickets FOR EACH ROW EXECUTE FUNCTION tickets_search_vector_update();
+
+UPDATE tickets SET search_vector = setweight(to_tsvector('es_unaccent', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(description, '')), 'B')
+    WHERE search_vector IS NULL;
+
+-- FAQs: la pregunta y las palabras clave pesan más que la respuesta
+ALTER TABLE faqs ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION faqs_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('es_unaccent', coalesce(NEW.question, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(NEW.search_keywords, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(NEW.answer, '')), 'B');
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS faqs_search_vector_trigger ON faqs;
+
+CREATE TRIGGER faqs_search_vector_trigger BEFORE INSERT OR UPDATE OF question, answer, search_keywords
+    ON faqs FOR EACH ROW EXECUTE FUNCTION faqs_search_vector_update();
+
+UPDATE faqs SET search_vector = setweight(to_tsvector('es_unaccent', coalesce(question, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(search_keywords, '')), 'A')
+        || setweight(to_tsvector('es_unaccent', coalesce(answer, '')), 'B')
+    WHERE search_vector IS NULL;
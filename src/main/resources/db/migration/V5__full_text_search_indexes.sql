@@ -0,0 +1,6 @@
+-- Índices GIN de search_vector (V4). Van en una migración aparte porque CONCURRENTLY no puede
+-- ejecutarse en la transacción del relleno; igual que en V2, si un índice queda inválido tras un
+-- fallo hay que borrarlo con DROP INDEX CONCURRENTLY antes de reintentar.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_search_vector ON tickets USING GIN (search_vector);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_faqs_search_vector ON faqs USING GIN (search_vector);
@@ -0,0 +1,34 @@
+-- Adelanta las secuencias de ids que van por detrás de los datos. Las bases creadas con columnas
+-- IDENTITY ya tenían filas cuando Hibernate creó las secuencias, que empezaban en 1; hasta ahora lo
+-- corregía la aplicación en cada arranque. Con bloques pooled-lo el último bloque repartido
+-- llega hasta last_value + increment_by - 1 (como en V3), y solo se mueve la secuencia si el máximo id
+-- de sus tablas lo supera. Los agregados horarios y diarios comparten ticket_rollups_seq.
+DO $$
+DECLARE
+    seq record;
+    table_name text;
+    table_max bigint;
+    max_id bigint;
+    block_end bigint;
+BEGIN
+    FOR seq IN SELECT * FROM (VALUES
+            ('faqs_seq', ARRAY['faqs']),
+            ('messages_seq', ARRAY['messages']),
+            ('ticket_categories_seq', ARRAY['ticket_categories']),
+            ('ticket_latency_sketches_seq', ARRAY['ticket_latency_sketches']),
+            ('ticket_rollups_seq', ARRAY['ticket_rollups_hourly', 'ticket_rollups_daily']),
+            ('tickets_seq', ARRAY['tickets'])) AS s(name, tables)
+    LOOP
+        max_id := 0;
+        FOREACH table_name IN ARRAY seq.tables LOOP
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', table_name) INTO table_max;
+            max_id := GREATEST(max_id, table_max);
+        END LOOP;
+
+        SELECT COALESCE(last_value + increment_by - 1, 0) INTO block_end
+            FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = seq.name;
+        IF max_id > block_end THEN
+            PERFORM setval(seq.name, max_id);
+        END IF;
+    END LOOP;
+END $$;
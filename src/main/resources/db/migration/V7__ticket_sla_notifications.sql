@@ -0,0 +1,7 @@
+-- Plazo para el que ya se emitió el aviso de riesgo y el de incumplimiento del SLA de cada ticket.
+-- Cada instancia sigue los plazos en memoria (TicketSlaEngine), pero solo la que consigue fijar la
+-- columna con un UPDATE condicional emite el aviso, de modo que con varias instancias no se repite.
+-- Guardar el plazo, y no un indicador, permite volver a avisar si cambia (prioridad o categoría).
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS sla_warned_deadline timestamp(6);
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS sla_breached_deadline timestamp(6);
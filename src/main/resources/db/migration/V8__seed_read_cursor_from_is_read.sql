@@ -0,0 +1,30 @@
+-- Las bases de datos creadas con ddl-auto=update conservan messages.is_read, la marca de lectura global
+-- anterior a ticket_read_cursor, y ningún cursor: sin esta migración todos sus mensajes aparecerían como
+-- no leídos. Para el creador del ticket y el agente asignado, el cursor se coloca justo antes del primer
+-- mensaje de otro remitente que seguía sin leer, o en el último mensaje del ticket si lo había leído todo
+-- (is_read NULL cuenta como leído, igual que antes). Después se elimina la columna.
+-- Las bases creadas desde V1 no tienen la columna y no hacen nada.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'messages' AND column_name = 'is_read') THEN
+        WITH participants AS (
+            SELECT t.id AS ticket_id, t.user_id FROM tickets t
+            UNION
+            SELECT t.id, t.assigned_to FROM tickets t WHERE t.assigned_to IS NOT NULL
+        ), seeded AS (
+            SELECT p.ticket_id, p.user_id,
+                   COALESCE((SELECT MIN(m.id) - 1 FROM messages m
+                             WHERE m.ticket_id = p.ticket_id AND m.sender_id <> p.user_id AND m.is_read = false),
+                            (SELECT MAX(m.id) FROM messages m WHERE m.ticket_id = p.ticket_id)) AS last_read_message_id
+            FROM participants p
+        )
+        INSERT INTO ticket_read_cursor (ticket_id, user_id, last_read_message_id, updated_at)
+        SELECT ticket_id, user_id, last_read_message_id, now() FROM seeded
+        WHERE last_read_message_id > 0
+        ON CONFLICT (ticket_id, user_id) DO UPDATE
+            SET last_read_message_id = GREATEST(ticket_read_cursor.last_read_message_id, EXCLUDED.last_read_message_id);
+
+        ALTER TABLE messages DROP COLUMN is_read;
+    END IF;
+END $$;
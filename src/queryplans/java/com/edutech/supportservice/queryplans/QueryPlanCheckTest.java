@@ -0,0 +1,128 @@
+package com.edutech.supportservice.queryplans;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que ninguna consulta de los repositorios recorre entera una tabla grande: arranca el servicio
+ * con el perfil {@code queryplans} contra un PostgreSQL 16+ desechable, aplica las migraciones de Flyway,
+ * genera datos con la distribución de producción, ejecuta cada método de los repositorios para capturar
+ * su SQL y revisa el plan genérico de cada sentencia.
+ * <p>
+ * La base de datos es un contenedor de Testcontainers, o la indicada en {@code QUERYPLANS_DATABASE_URL}
+ * (vacía y desechable) cuando no hay Docker. Falla si algún método produce un Seq Scan no permitido en
+ * {@code queryplans.allowed-seq-scans}.
+ */
+@Tag("queryplans")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("queryplans")
+class QueryPlanCheckTest {
+
+    private static final int MIN_SERVER_VERSION = 160000;
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("queryplans");
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (System.getenv("QUERYPLANS_DATABASE_URL") != null) {
+            return;
+        }
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanLargeTables() {
+        QueryPlanProperties properties = Binder.get(context.getEnvironment())
+                .bindOrCreate("queryplans", QueryPlanProperties.class);
+
+        Integer serverVersion = jdbcTemplate.queryForObject("SHOW server_version_num", Integer.class);
+        assertThat(serverVersion).as("EXPLAIN (GENERIC_PLAN) necesita PostgreSQL 16 o superior")
+                .isGreaterThanOrEqualTo(MIN_SERVER_VERSION);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Long.class))
+                .as("La comprobación necesita una base de datos vacía y desechable")
+                .isZero();
+
+        long seedStart = System.nanoTime();
+        new QueryPlanSeeder(jdbcTemplate, properties.getSeed()).seed();
+        System.out.printf("Datos generados: %d tickets con %d mensajes cada uno en %.1f s%n",
+                properties.getSeed().getTickets(), properties.getSeed().getMessagesPerTicket(),
+                (System.nanoTime() - seedStart) / 1e9);
+
+        List<String> violations = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        Map<String, List<String>> statements = new RepositoryQueryCollector(context).collect(failures);
+        failures.forEach((method, error) -> violations.add(method + ": no se pudo ejecutar (" + error + ")"));
+
+        QueryPlanChecker checker = new QueryPlanChecker(simpleProtocolJdbcTemplate(), objectMapper,
+                properties.getMaxSeqScanRows());
+        Map<String, String> allowed = properties.getAllowedSeqScans();
+        statements.forEach((method, sqls) -> {
+            List<String> seqScans;
+            try {
+                seqScans = sqls.stream()
+                        .flatMap(sql -> checker.findLargeSeqScans(sql).stream())
+                        .distinct()
+                        .toList();
+            } catch (DataAccessException e) {
+                System.out.println("  FALLA     " + method + ": sin plan");
+                violations.add(method + ": no se pudo obtener el plan (" + e.getMostSpecificCause().getMessage() + ")");
+                return;
+            }
+            if (seqScans.isEmpty()) {
+                System.out.println("  OK        " + method);
+            } else if (allowed.containsKey(method)) {
+                System.out.println("  PERMITIDO " + method + ": " + String.join(", ", seqScans) + " (" + allowed.get(method) + ")");
+            } else {
+                System.out.println("  FALLA     " + method + ": " + String.join(", ", seqScans));
+                seqScans.forEach(seqScan -> violations.add(method + ": " + seqScan));
+            }
+        });
+
+        assertThat(violations).as("Consultas sin índice adecuado").isEmpty();
+    }
+
+    // Con el protocolo extendido el servidor exigiría valores para $1, $2...; en modo simple el texto
+    // llega tal cual, como desde psql
+    private JdbcTemplate simpleProtocolJdbcTemplate() {
+        String url = dataSourceProperties.determineUrl();
+        url += (url.contains("?") ? "&" : "?") + "preferQueryMode=simple";
+        return new JdbcTemplate(new DriverManagerDataSource(url, dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.edutech.supportservice.queryplans;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Obtiene el plan genérico de cada sentencia con {@code EXPLAIN (GENERIC_PLAN, FORMAT JSON)} (PostgreSQL 16+),
+ * el mismo que PostgreSQL usa para una sentencia preparada sin mirar los valores, y busca recorridos
+ * completos (Seq Scan) de tablas grandes según las estadísticas de ANALYZE.
+ */
+public class QueryPlanChecker {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long maxSeqScanRows;
+    private final Map<String, Long> estimatedRows = new HashMap<>();
+
+    public QueryPlanChecker(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, long maxSeqScanRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.maxSeqScanRows = maxSeqScanRows;
+        jdbcTemplate.query("SELECT relname, reltuples::bigint FROM pg_class " +
+                        "WHERE relkind = 'r' AND relnamespace = current_schema()::regnamespace",
+                row -> {
+                    estimatedRows.put(row.getString(1), row.getLong(2));
+                });
+    }
+
+    /**
+     * @return una descripción por cada tabla grande recorrida entera; vacía si el plan solo usa índices
+     * o tablas pequeñas
+     * @throws org.springframework.dao.DataAccessException si PostgreSQL no puede planificar la sentencia
+     */
+    public List<String> findLargeSeqScans(String sql) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql), String.class);
+        List<String> seqScans = new ArrayList<>();
+        try {
+            collectSeqScans(objectMapper.readTree(json).get(0).get("Plan"), seqScans);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Plan en JSON no válido", e);
+        }
+        return seqScans;
+    }
+
+    private void collectSeqScans(JsonNode plan, List<String> seqScans) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            String table = plan.path("Relation Name").asText();
+            long rows = estimatedRows.getOrDefault(table, 0L);
+            if (rows > maxSeqScanRows) {
+                seqScans.add("Seq Scan sobre " + table + " (~" + rows + " filas)");
+            }
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    // Hibernate genera parámetros JDBC (?); EXPLAIN GENERIC_PLAN necesita los de PostgreSQL ($1, $2...)
+    static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
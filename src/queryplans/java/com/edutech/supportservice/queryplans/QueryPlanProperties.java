@@ -0,0 +1,31 @@
+package com.edutech.supportservice.queryplans;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de la comprobación de planes, enlazada desde las propiedades {@code queryplans.*}
+ * del perfil {@code queryplans}.
+ */
+@Data
+public class QueryPlanProperties {
+
+    private Seed seed = new Seed();
+
+    // Tablas con más filas estimadas que esto no pueden recorrerse enteras (Seq Scan)
+    private long maxSeqScanRows = 10000;
+
+    // Métodos (Repositorio.metodo) que leen toda la tabla por diseño, con el motivo
+    private Map<String, String> allowedSeqScans = new LinkedHashMap<>();
+
+    @Data
+    public static class Seed {
+        private int tickets = 200000;
+        private int messagesPerTicket = 4;
+        private int users = 20000;
+        private int staff = 200;
+        private int courses = 500;
+    }
+}
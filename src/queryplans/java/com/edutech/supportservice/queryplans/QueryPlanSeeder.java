@@ -0,0 +1,74 @@
+package com.edutech.supportservice.queryplans;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Llena la base de datos con SQL directo (generate_series) para que las estadísticas del planificador
+ * se parezcan a las de producción: la mayoría de tickets cerrados, pocos abiertos y pocas notas internas.
+ * Los servicios no intervienen porque aquí solo importa el volumen y la distribución de los datos.
+ */
+public class QueryPlanSeeder {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QueryPlanProperties.Seed settings;
+
+    public QueryPlanSeeder(JdbcTemplate jdbcTemplate, QueryPlanProperties.Seed settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+    }
+
+    public void seed() {
+        // 85 % cerrados, 10 % resueltos, 3 % en progreso y 2 % nuevos sin asignar
+        jdbcTemplate.update("INSERT INTO tickets (id, title, description, status, priority, user_id, user_email, user_name, user_type, " +
+                "assigned_to, course_id, course_name, category_id, created_at, updated_at, closed_at, first_user_message_at, " +
+                "first_staff_response_at, last_activity_at, message_count, satisfaction_rating, rated_at, version) " +
+                "SELECT base.id + g, 'Ticket sintético ' || g, 'Descripción del ticket ' || g, " +
+                "CASE WHEN g % 100 < 85 THEN 'CERRADO' WHEN g % 100 < 95 THEN 'RESUELTO' WHEN g % 100 < 98 THEN 'EN_PROGRESO' ELSE 'NUEVO' END, " +
+                "(ARRAY['BAJA', 'MEDIA', 'ALTA', 'CRÍTICA'])[g % 4 + 1], " +
+                "1000 + g % ?, 'estudiante' || g % ? || '@edutech.cl', 'Estudiante ' || g % ?, 'ESTUDIANTE', " +
+                "CASE WHEN g % 100 >= 98 THEN NULL ELSE 100000 + g % ? END, " +
+                "g % ?, 'Curso ' || g % ?, " +
+                "categories.ids[g % cardinality(categories.ids) + 1], " +
+                "c.created_at, c.created_at + INTERVAL '1 day', " +
+                "CASE WHEN g % 100 < 95 THEN c.created_at + INTERVAL '1 day' END, " +
+                "c.created_at, " +
+                "CASE WHEN g % 100 < 98 THEN c.created_at + INTERVAL '1 hour' END, " +
+                "c.created_at + INTERVAL '1 hour', ?, " +
+                "CASE WHEN g % 100 < 85 AND g % 2 = 0 THEN g % 5 + 1 END, " +
+                "CASE WHEN g % 100 < 85 AND g % 2 = 0 THEN c.created_at + INTERVAL '2 days' END, " +
+                "0 " +
+                "FROM generate_series(1, ?) g " +
+                "CROSS JOIN (SELECT COALESCE(MAX(id), 0) AS id FROM tickets) base " +
+                "CROSS JOIN (SELECT array_agg(id ORDER BY id) AS ids FROM ticket_categories) categories " +
+                "CROSS JOIN LATERAL (SELECT LOCALTIMESTAMP - make_interval(mins => g) AS created_at) c",
+                settings.getUsers(), settings.getUsers(), settings.getUsers(), settings.getStaff(),
+                settings.getCourses(), settings.getCourses(), settings.getMessagesPerTicket(), settings.getTickets());
+
+        // Mensajes alternos de estudiante y soporte; una de cada diez conversaciones lleva una nota interna
+        jdbcTemplate.update("INSERT INTO messages (id, ticket_id, content, sender_id, sender_type, sender_name, is_internal_note, created_at) " +
+                "SELECT base.id + ROW_NUMBER() OVER (ORDER BY t.id, n), t.id, 'Mensaje ' || n || ' del ticket ' || t.id, " +
+                "CASE WHEN n % 2 = 1 THEN t.user_id ELSE COALESCE(t.assigned_to, 100000) END, " +
+                "CASE WHEN n % 2 = 1 THEN 'USUARIO' ELSE 'SOPORTE' END, " +
+                "CASE WHEN n % 2 = 1 THEN t.user_name ELSE 'Agente de soporte' END, " +
+                "n = ? AND t.id % 10 = 0, " +
+                "t.created_at + make_interval(mins => n * 30) " +
+                "FROM tickets t " +
+                "CROSS JOIN generate_series(1, ?) n " +
+                "CROSS JOIN (SELECT COALESCE(MAX(id), 0) AS id FROM messages) base",
+                settings.getMessagesPerTicket(), settings.getMessagesPerTicket());
+
+        // La mitad de los estudiantes ha leído su conversación hasta el último mensaje
+        jdbcTemplate.update("INSERT INTO ticket_read_cursor (ticket_id, user_id, last_read_message_id, updated_at) " +
+                "SELECT m.ticket_id, t.user_id, MAX(m.id), LOCALTIMESTAMP " +
+                "FROM messages m JOIN tickets t ON t.id = m.ticket_id " +
+                "WHERE t.id % 2 = 0 " +
+                "GROUP BY m.ticket_id, t.user_id " +
+                "ON CONFLICT DO NOTHING");
+
+        // Los bloques de ids que Hibernate pida después quedan por encima de las filas insertadas
+        jdbcTemplate.queryForObject("SELECT setval('tickets_seq', (SELECT MAX(id) FROM tickets))", Long.class);
+        jdbcTemplate.queryForObject("SELECT setval('messages_seq', (SELECT MAX(id) FROM messages))", Long.class);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,136 @@
+package com.edutech.supportservice.queryplans;
+
+import com.edutech.supportservice.repository.TicketRepository;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Ejecuta cada método declarado en los repositorios de la aplicación con argumentos de ejemplo,
+ * en una transacción que siempre se deshace, y guarda el SQL que genera cada uno.
+ * Los métodos heredados de Spring Data (findById, save...) no se recorren: van por clave primaria.
+ */
+public class RepositoryQueryCollector {
+
+    private static final String REPOSITORY_PACKAGE = TicketRepository.class.getPackageName();
+    private static final LocalDateTime SAMPLE_TIME = LocalDateTime.now();
+
+    private final ApplicationContext context;
+    private final TransactionTemplate transaction;
+
+    public RepositoryQueryCollector(ApplicationContext context) {
+        this.context = context;
+        this.transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    /**
+     * @return SQL generado por cada método, con clave {@code Repositorio.metodo}; los que fallan llevan
+     * el error en {@code failures}
+     */
+    public Map<String, List<String>> collect(Map<String, String> failures) {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (Repository<?, ?> repository : context.getBeansOfType(Repository.class).values()) {
+            Class<?> repositoryInterface = repositoryInterface(repository);
+            Arrays.stream(repositoryInterface.getMethods())
+                    .filter(method -> method.getDeclaringClass().getPackageName().equals(REPOSITORY_PACKAGE))
+                    .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()) && !method.isBridge())
+                    .sorted(Comparator.comparing(Method::toGenericString))
+                    .forEach(method -> {
+                        String key = repositoryInterface.getSimpleName() + "." + method.getName();
+                        try {
+                            statements.computeIfAbsent(key, name -> new ArrayList<>()).addAll(invoke(repository, method));
+                        } catch (RuntimeException e) {
+                            failures.put(key, e.getMessage());
+                        }
+                    });
+        }
+        return statements;
+    }
+
+    private List<String> invoke(Object repository, Method method) {
+        Object[] arguments = Arrays.stream(method.getParameters()).map(this::sampleArgument).toArray();
+        List<String> captured = new ArrayList<>();
+        transaction.executeWithoutResult(status -> {
+            // Las consultas de modificación también se ejecutan; nada de lo que escriben se confirma
+            status.setRollbackOnly();
+            SqlCapture.start();
+            try {
+                consume(method.invoke(repository, arguments));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+            } finally {
+                captured.addAll(SqlCapture.stop());
+            }
+        });
+        return captured;
+    }
+
+    // Los Stream de Hibernate abren un cursor: basta con leer la primera fila y cerrarlo
+    private void consume(Object result) {
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.findFirst();
+            }
+        }
+    }
+
+    private Object sampleArgument(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == String.class) {
+            return "NUEVO";
+        }
+        if (type == LocalDateTime.class) {
+            return SAMPLE_TIME;
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 20);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return Map.of(1L, 1L);
+        }
+        if (Collection.class.isAssignableFrom(type)
+                && parameter.getParameterizedType() instanceof ParameterizedType collectionType) {
+            return collectionType.getActualTypeArguments()[0] == LocalDateTime.class
+                    ? List.of(SAMPLE_TIME)
+                    : List.of(1L);
+        }
+        throw new IllegalArgumentException("No hay valor de ejemplo para un parámetro de tipo " + parameter.getParameterizedType());
+    }
+
+    private Class<?> repositoryInterface(Object repository) {
+        return Arrays.stream(AopProxyUtils.proxiedUserInterfaces(repository))
+                .filter(type -> type.getPackageName().equals(REPOSITORY_PACKAGE))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Repositorio sin interfaz propia: " + repository));
+    }
+}
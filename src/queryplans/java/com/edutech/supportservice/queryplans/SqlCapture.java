@@ -0,0 +1,34 @@
+package com.edutech.supportservice.queryplans;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra el SQL que Hibernate prepara en el hilo actual entre {@link #start()} y {@link #stop()}.
+ * Se registra con {@code hibernate.session_factory.statement_inspector} y no modifica las sentencias.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+        return captured != null ? captured : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,141 @@
+package com.edutech.supportservice.config;
+
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrutado de {@link ReadReplicaConfig} con dos bases H2 independientes: {@code primary} (esquema de la
+ * aplicación) y {@code replica} (vacía). Cada base responde con su nombre a {@code DATABASE()}, así que
+ * se sabe de cuál vino cada lectura.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.jpa.open-in-view=false",
+        "app.db.replicas.enabled=true",
+        "app.db.replicas.nodes[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.db.replicas.nodes[0].username=sa",
+        "app.db.replicas.nodes[0].maximum-pool-size=2",
+        // Las comprobaciones las lanza cada test
+        "app.db.replicas.health-check-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadReplicas replicas;
+
+    @Autowired
+    private TicketService ticketService;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        replicas.checkHealth();
+    }
+
+    @Test
+    void wrapsPrimaryInLazyRoutingProxy() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(replica().isUp()).isTrue();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplicaPool() {
+        long fallbacks = replicas.getFallbacks();
+
+        String database = readOnly.execute(status -> {
+            String name = currentDatabase();
+            assertThat(replica().getPool().getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            return name;
+        });
+
+        assertThat(database).isEqualTo("replica");
+        assertThat(replicas.getFallbacks()).isEqualTo(fallbacks);
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        String database = readWrite.execute(status -> {
+            String name = currentDatabase();
+            assertThat(replica().getPool().getHikariPoolMXBean().getActiveConnections()).isZero();
+            return name;
+        });
+
+        assertThat(database).isEqualTo("primary");
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyTransaction() {
+        String database = ReadReplicaRouting.onPrimary(() -> readOnly.execute(status -> currentDatabase()));
+
+        assertThat(database).isEqualTo("primary");
+    }
+
+    @Test
+    void serviceWritesAndPrimaryReadsSkipReplica() {
+        // La réplica no tiene el esquema: cualquier sentencia enviada a ella fallaría
+        TicketDTO ticket = new TicketDTO();
+        ticket.setTitle("Ticket de prueba de réplicas");
+        ticket.setDescription("No puedo acceder al curso de bases de datos");
+        ticket.setUserId(7L);
+        ticket.setPriority("MEDIA");
+        ticket.setCategoryId(1L);
+        TicketDTO saved = ticketService.createTicket(ticket);
+
+        TicketDTO loaded = ReadReplicaRouting.onPrimary(() -> ticketService.getTicketById(saved.getId()));
+
+        assertThat(loaded.getTitle()).isEqualTo("Ticket de prueba de réplicas");
+    }
+
+    @Test
+    @DirtiesContext
+    void closedReplicaFallsBackToPrimary() {
+        long fallbacks = replicas.getFallbacks();
+        replica().getPool().close();
+
+        String database = readOnly.execute(status -> currentDatabase());
+
+        assertThat(database).isEqualTo("primary");
+        assertThat(replica().isUp()).isFalse();
+        assertThat(replicas.getFallbacks()).isGreaterThan(fallbacks);
+
+        // Tras marcarla caída, las lecturas siguientes van directamente al primario
+        String next = readOnly.execute(status -> currentDatabase());
+        assertThat(next).isEqualTo("primary");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase();
+    }
+
+    private ReadReplicas.Replica replica() {
+        return replicas.getReplicas().get(0);
+    }
+}
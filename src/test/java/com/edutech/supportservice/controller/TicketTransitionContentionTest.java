@@ -0,0 +1,199 @@
+package com.edutech.supportservice.controller;
+
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transiciones concurrentes sobre el mismo ticket a través de la API. Para que todas las peticiones
+ * lleguen a la vez, una conexión aparte bloquea la fila hasta que todas están esperando en su lectura
+ * con bloqueo; al liberarla se aplican una detrás de otra y solo la primera asignación encuentra el
+ * ticket libre.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "spring.datasource.url=jdbc:h2:mem:contention;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=20000")
+@ActiveProfiles("test")
+class TicketTransitionContentionTest {
+
+    private static final int REQUESTS = 8;
+    private static final long BLOCK_TIMEOUT_MS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Autowired
+    private TicketService ticketService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentAssignsHaveExactlyOneWinner() throws Exception {
+        TicketDTO ticket = createTicket();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            paths.add("/assign/" + (100 + i));
+        }
+
+        Map<String, Integer> statuses = contend(ticket.getId(), paths);
+
+        assertThat(statuses.values()).containsOnly(200, 409);
+        assertThat(statuses.values().stream().filter(status -> status == 200)).hasSize(1);
+        String winner = winner(statuses);
+        TicketDTO stored = ticketService.getTicketById(ticket.getId());
+        assertThat(stored.getAssignedToId()).isEqualTo(Long.valueOf(winner.substring("/assign/".length())));
+        assertThat(stored.getStatus()).isEqualTo("ASIGNADO");
+        assertThat(stored.getVersion()).isEqualTo(ticket.getVersion() + 1);
+    }
+
+    @Test
+    void concurrentChangesDoNotMakeAssignsLose() throws Exception {
+        TicketDTO ticket = createTicket();
+        List<String> paths = List.of("/assign/100", "/assign/101", "/assign/102", "/assign/103",
+                "/priority/ALTA", "/status/EN_PROGRESO", "/assign/104", "/assign/105");
+
+        Map<String, Integer> statuses = contend(ticket.getId(), paths);
+
+        // Solo pierden las asignaciones que compiten con otra; los demás cambios se aplican todos
+        assertThat(statuses.get("/priority/ALTA")).isEqualTo(200);
+        assertThat(statuses.get("/status/EN_PROGRESO")).isEqualTo(200);
+        assertThat(statuses.values()).containsOnly(200, 409);
+        assertThat(statuses.values().stream().filter(status -> status == 200)).hasSize(3);
+
+        String winner = statuses.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("/assign/") && entry.getValue() == 200)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+        TicketDTO stored = ticketService.getTicketById(ticket.getId());
+        assertThat(stored.getAssignedToId()).isEqualTo(Long.valueOf(winner.substring("/assign/".length())));
+        assertThat(stored.getPriority()).isEqualTo("ALTA");
+        assertThat(stored.getStatus()).isEqualTo("EN_PROGRESO");
+        assertThat(stored.getVersion()).isEqualTo(ticket.getVersion() + 3);
+    }
+
+    @Test
+    void reassignMovesTicketHeldByAnotherAgent() throws Exception {
+        TicketDTO ticket = createTicket();
+
+        assertThat(patch(ticket.getId(), "/assign/100").statusCode()).isEqualTo(200);
+        assertThat(patch(ticket.getId(), "/assign/101").statusCode()).isEqualTo(409);
+        assertThat(patch(ticket.getId(), "/reassign/101").statusCode()).isEqualTo(200);
+
+        TicketDTO stored = ticketService.getTicketById(ticket.getId());
+        assertThat(stored.getAssignedToId()).isEqualTo(101L);
+        assertThat(stored.getStatus()).isEqualTo("ASIGNADO");
+        assertThat(patch(999_999L, "/reassign/101").statusCode()).isEqualTo(404);
+    }
+
+    private Map<String, Integer> contend(Long ticketId, List<String> paths) throws Exception {
+        try (Connection holder = DriverManager.getConnection(url, "sa", "")) {
+            holder.setAutoCommit(false);
+            try (PreparedStatement lock = holder.prepareStatement("SELECT id FROM tickets WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, ticketId);
+                lock.executeQuery().close();
+            }
+
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (String path : paths) {
+                responses.add(executor.submit(() -> patch(ticketId, path)));
+            }
+            awaitBlockedSessions(holder, paths.size());
+            holder.commit();
+
+            Map<String, Integer> statuses = new LinkedHashMap<>();
+            for (int i = 0; i < paths.size(); i++) {
+                statuses.put(paths.get(i), responses.get(i).get().statusCode());
+            }
+            return statuses;
+        }
+    }
+
+    // Espera a que todas las peticiones estén bloqueadas en la lectura del ticket
+    private void awaitBlockedSessions(Connection holder, int expected) throws SQLException, InterruptedException {
+        try (Statement statement = holder.createStatement()) {
+            long holderSession;
+            try (ResultSet rs = statement.executeQuery("SELECT SESSION_ID()")) {
+                rs.next();
+                holderSession = rs.getLong(1);
+            }
+            long deadline = System.currentTimeMillis() + BLOCK_TIMEOUT_MS;
+            while (true) {
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID = " + holderSession)) {
+                    rs.next();
+                    if (rs.getInt(1) >= expected) {
+                        return;
+                    }
+                }
+                assertThat(System.currentTimeMillis()).as("peticiones bloqueadas en la lectura").isLessThan(deadline);
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private HttpResponse<String> patch(Long ticketId, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets/" + ticketId + path))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private TicketDTO createTicket() {
+        TicketDTO ticket = new TicketDTO();
+        ticket.setTitle("Ticket disputado");
+        ticket.setDescription("Varios agentes intentan atenderlo a la vez");
+        ticket.setUserId(7L);
+        ticket.setPriority("MEDIA");
+        ticket.setCategoryId(1L);
+        return ticketService.createTicket(ticket);
+    }
+
+    private static String winner(Map<String, Integer> statuses) {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getValue() == 200)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.collectingAndThen(Collectors.toList(), winners -> winners.get(0)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.edutech.supportservice.service.impl;
+
+import com.edutech.supportservice.dto.TicketDTO;
+import com.edutech.supportservice.model.Message;
+import com.edutech.supportservice.model.Ticket;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.service.search.SearchIndex;
+import com.edutech.supportservice.service.stats.TicketRollupJob;
+import com.edutech.supportservice.service.stats.TicketStatsEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias SQL de los listados de tickets: deben ser las mismas para cualquier tamaño de página,
+ * sin una consulta por ticket para su categoría ni para sus mensajes.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TicketServiceImpl.class)
+class TicketListingQueryCountTest {
+
+    private static final long USER_ID = 7L;
+    private static final int TICKETS = 30;
+
+    @MockitoBean
+    private SearchIndex searchIndex;
+
+    @MockitoBean
+    private TicketStatsEngine statsEngine;
+
+    @MockitoBean
+    private TicketRollupJob rollupJob;
+
+    @MockitoBean
+    private Validator validator;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<TicketCategory> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TicketCategory category = new TicketCategory();
+            category.setName("Categoría " + i);
+            entityManager.persist(category);
+            categories.add(category);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TICKETS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTitle("Ticket de listado " + i);
+            ticket.setDescription("No se carga la lección " + i);
+            ticket.setStatus("NUEVO");
+            ticket.setPriority("MEDIA");
+            ticket.setUserId(USER_ID);
+            ticket.setCategory(categories.get(i % categories.size()));
+            ticket.setMessageCount(2);
+            ticket.setFirstUserMessageAt(now);
+            ticket.setFirstStaffResponseAt(now.plusMinutes(15));
+            entityManager.persist(ticket);
+
+            for (String senderType : List.of("USUARIO", "SOPORTE")) {
+                Message message = new Message();
+                message.setTicket(ticket);
+                message.setContent("Mensaje de " + senderType);
+                message.setSenderId(senderType.equals("USUARIO") ? USER_ID : 100L);
+                message.setSenderType(senderType);
+                entityManager.persist(message);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void paginatedListingUsesSameStatementsForAnyPageSize() {
+        long small = statementsFor(() -> assertMapped(
+                ticketService.getTicketsPaginated(PageRequest.of(0, 5, Sort.by("id"))), 5));
+        long large = statementsFor(() -> assertMapped(
+                ticketService.getTicketsPaginated(PageRequest.of(0, 25, Sort.by("id"))), 25));
+
+        // Página y COUNT total
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void listsByUserAndAllTicketsInOneStatement() {
+        assertThat(statementsFor(() -> assertThat(ticketService.getTicketsByUser(USER_ID)).hasSize(TICKETS)))
+                .isEqualTo(1);
+        assertThat(statementsFor(() -> assertThat(ticketService.getAllTickets()).hasSize(TICKETS)))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void feedUsesOneStatementPerPage() {
+        assertThat(statementsFor(() -> assertThat(ticketService.getTicketFeed(null, 20).getItems()).hasSize(20)))
+                .isEqualTo(1);
+    }
+
+    private void assertMapped(Page<TicketDTO> page, int size) {
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getCategoryName()).startsWith("Categoría ");
+            assertThat(dto.getMessageCount()).isEqualTo(2);
+            assertThat(dto.getResponseTimeMinutes()).isEqualTo(15);
+        });
+    }
+
+    private long statementsFor(Runnable listing) {
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,126 @@
+package com.edutech.supportservice.service.impl;
+
+import com.edutech.supportservice.exception.TicketTransitionConflictException;
+import com.edutech.supportservice.model.Message;
+import com.edutech.supportservice.model.Ticket;
+import com.edutech.supportservice.model.TicketCategory;
+import com.edutech.supportservice.service.search.SearchIndex;
+import com.edutech.supportservice.service.stats.TicketRollupJob;
+import com.edutech.supportservice.service.stats.TicketStatsEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sentencias SQL de las transiciones de un ticket. Antes cada una cargaba el ticket, leía sus mensajes
+ * al convertirlo a DTO y lo guardaba entero; ahora son la lectura con bloqueo (ticket y categoría)
+ * y el UPDATE condicional, tanto si la transición se aplica como si pierde.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TicketServiceImpl.class)
+class TicketTransitionQueryCountTest {
+
+    private static final int TRANSITION_STATEMENTS = 2;
+
+    @MockitoBean
+    private SearchIndex searchIndex;
+
+    @MockitoBean
+    private TicketStatsEngine statsEngine;
+
+    @MockitoBean
+    private TicketRollupJob rollupJob;
+
+    @MockitoBean
+    private Validator validator;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long ticketId;
+
+    @BeforeEach
+    void setUp() {
+        TicketCategory category = new TicketCategory();
+        category.setName("Problemas Técnicos");
+        entityManager.persist(category);
+
+        Ticket ticket = new Ticket();
+        ticket.setTitle("No carga el vídeo");
+        ticket.setDescription("El vídeo de la lección 3 se queda en negro");
+        ticket.setStatus("NUEVO");
+        ticket.setPriority("MEDIA");
+        ticket.setUserId(7L);
+        ticket.setCategory(category);
+        ticket.setMessageCount(3);
+        entityManager.persist(ticket);
+        ticketId = ticket.getId();
+
+        for (String senderType : List.of("USUARIO", "SOPORTE", "USUARIO")) {
+            Message message = new Message();
+            message.setTicket(ticket);
+            message.setContent("Mensaje de " + senderType);
+            message.setSenderId(senderType.equals("USUARIO") ? 7L : 100L);
+            message.setSenderType(senderType);
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void transitionsUseLockedReadAndOneUpdate() {
+        assertTransitionStatements(() -> assertThat(ticketService.assignTicket(ticketId, 100L).getStatus())
+                .isEqualTo("ASIGNADO"));
+        assertTransitionStatements(() -> assertThat(ticketService.changeTicketStatus(ticketId, "EN_PROGRESO").getStatus())
+                .isEqualTo("EN_PROGRESO"));
+        assertTransitionStatements(() -> assertThat(ticketService.changeTicketPriority(ticketId, "ALTA").getPriority())
+                .isEqualTo("ALTA"));
+        assertTransitionStatements(() -> assertThat(ticketService.reassignTicket(ticketId, 101L).getAssignedToId())
+                .isEqualTo(101L));
+    }
+
+    @Test
+    void losingAssignUsesSameStatements() {
+        ticketService.assignTicket(ticketId, 100L);
+
+        assertTransitionStatements(() -> assertThatThrownBy(() -> ticketService.assignTicket(ticketId, 101L))
+                .isInstanceOf(TicketTransitionConflictException.class));
+    }
+
+    private void assertTransitionStatements(Runnable transition) {
+        entityManager.clear();
+        statistics.clear();
+        transition.run();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(TRANSITION_STATEMENTS);
+        // Ni los mensajes del ticket ni un UPDATE de la entidad completa
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+    }
+}
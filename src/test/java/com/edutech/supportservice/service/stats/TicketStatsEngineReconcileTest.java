@@ -0,0 +1,138 @@
+package com.edutech.supportservice.service.stats;
+
+import com.edutech.supportservice.event.TicketStatsChangedEvent;
+import com.edutech.supportservice.event.TicketStatsChangedEvent.Snapshot;
+import com.edutech.supportservice.repository.AggregateTotals;
+import com.edutech.supportservice.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cambios que llegan mientras la conciliación lee los agregados: se reaplican sobre la foto solo
+ * si esta no los vio, según la versión de cada ticket leída en la misma transacción.
+ */
+class TicketStatsEngineReconcileTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TicketStatsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        engine = new TicketStatsEngine(ticketRepository, transactionManager, meterRegistry);
+
+        AggregateTotals none = mock(AggregateTotals.class);
+        when(none.getCount()).thenReturn(0L);
+        when(ticketRepository.getResolutionTimeTotals()).thenReturn(none);
+        when(ticketRepository.getSatisfactionRatingTotals()).thenReturn(none);
+        when(ticketRepository.getTicketCountsByCategory()).thenReturn(List.of());
+
+        // Punto de partida: el ticket 1 en NUEVO, versión 0
+        databaseHolds(Map.of(1L, 0L), List.of(ticket(1L, 0L, "NUEVO")));
+        engine.reconcile();
+    }
+
+    @Test
+    void changeCommittedBeforeSnapshotIsNotReplayed() {
+        Snapshot nuevo = ticket(1L, 0L, "NUEVO");
+        Snapshot asignado = ticket(1L, 1L, "ASIGNADO");
+        // La foto ya ve el ticket ASIGNADO; el evento de ese cambio llega durante la lectura
+        databaseHolds(Map.of(1L, 1L), List.of(asignado),
+                TicketStatsChangedEvent.changed(nuevo, asignado));
+
+        engine.reconcile();
+
+        assertThat(engine.getStats().getStatusCounts()).isEqualTo(Map.of("ASIGNADO", 1L));
+        assertThat(engine.getStats().getTotalTickets()).isEqualTo(1);
+        assertThat(driftCorrections()).isZero();
+    }
+
+    @Test
+    void changeCommittedAfterSnapshotIsReplayed() {
+        Snapshot nuevo = ticket(1L, 0L, "NUEVO");
+        Snapshot asignado = ticket(1L, 1L, "ASIGNADO");
+        // La foto aún ve la versión 0
+        databaseHolds(Map.of(1L, 0L), List.of(nuevo),
+                TicketStatsChangedEvent.changed(nuevo, asignado));
+
+        engine.reconcile();
+
+        assertThat(engine.getStats().getStatusCounts()).isEqualTo(Map.of("ASIGNADO", 1L));
+        assertThat(driftCorrections()).isZero();
+    }
+
+    @Test
+    void creationsAndDeletionsFollowWhatSnapshotSaw() {
+        Snapshot nuevo = ticket(1L, 0L, "NUEVO");
+        Snapshot created = ticket(2L, 0L, "NUEVO");
+        Snapshot createdAndDeleted = ticket(3L, 0L, "NUEVO");
+        // La foto ve el ticket 1 y no ve el 2 (alta posterior) ni el 3 (alta y borrado posteriores)
+        databaseHolds(Map.of(1L, 0L), List.of(nuevo),
+                TicketStatsChangedEvent.created(created),
+                TicketStatsChangedEvent.created(createdAndDeleted),
+                TicketStatsChangedEvent.deleted(createdAndDeleted),
+                TicketStatsChangedEvent.deleted(nuevo));
+
+        engine.reconcile();
+
+        assertThat(engine.getStats().getTotalTickets()).isEqualTo(1);
+        assertThat(engine.getStats().getStatusCounts()).isEqualTo(Map.of("NUEVO", 1L));
+        assertThat(driftCorrections()).isZero();
+    }
+
+    // Lo que lee la foto; los eventos se entregan mientras se leen los agregados, como los de
+    // transacciones que se confirman durante la conciliación
+    private void databaseHolds(Map<Long, Long> versions, List<Snapshot> tickets, TicketStatsChangedEvent... duringRead) {
+        when(ticketRepository.getTicketCountsByStatus()).thenAnswer(invocation -> {
+            for (TicketStatsChangedEvent event : duringRead) {
+                engine.onTicketStatsChanged(event);
+            }
+            return countBy(tickets, true);
+        });
+        when(ticketRepository.getTicketCountsByPriority()).thenReturn(countBy(tickets, false));
+        when(ticketRepository.findVersionsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object id : invocation.<Collection<?>>getArgument(0)) {
+                if (versions.containsKey(id)) {
+                    rows.add(new Object[]{id, versions.get(id)});
+                }
+            }
+            return rows;
+        });
+    }
+
+    private static List<Object[]> countBy(List<Snapshot> tickets, boolean byStatus) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Snapshot ticket : tickets) {
+            rows.add(new Object[]{byStatus ? ticket.getStatus() : ticket.getPriority(), 1L});
+        }
+        return rows;
+    }
+
+    private static Snapshot ticket(Long id, Long version, String status) {
+        return new Snapshot(id, version, status, "MEDIA", null, null, CREATED_AT, null, null);
+    }
+
+    private double driftCorrections() {
+        return meterRegistry.counter("tickets.stats.drift").count();
+    }
+}